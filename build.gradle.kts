@@ -1,5 +1,3 @@
-import java.io.PrintWriter
-
 group = "io.jsq.ecs"
 version = "0.0.1-SNAPSHOT"
 
@@ -9,6 +7,15 @@ plugins {
     maven
 }
 
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // Required by the generated Java bindings
+    implementation("com.fasterxml.jackson.core:jackson-core:2.9.8")
+}
+
 java {
     sourceCompatibility = JavaVersion.VERSION_1_8
     targetCompatibility = JavaVersion.VERSION_1_8
@@ -16,20 +23,35 @@ java {
 
 val modelTargetDir = file("${sourceSets["main"].output.resourcesDir}/META-INF/smithy")
 val writeModel = tasks.getByName<io.jsq.ecs.ToSmithyTask>("writeModel") {
-    doFirst {
-        modelTargetDir.mkdirs()
-    }
-
     namespace = "elastic.ecs"
     rootShapeName = "Record"
     targetPath = modelTargetDir.absolutePath + "/elastic-common-schema.json"
+    manifestPath = modelTargetDir.absolutePath + "/manifest"
+    indexTemplatePath = "${sourceSets["main"].output.resourcesDir}/META-INF/elasticsearch/ecs-template.json"
+    phaseReportPath = "$buildDir/reports/ecs/writeModel-phases.json"
+    validation = "concurrent"
+
+    // Trimmed models for SDK and client code generation, which need only a fraction of ECS
+    modelProfileDirectoryPath = "$buildDir/generated/ecs-profiles"
+    modelProfiles = mapOf(
+            "core" to listOf("core-only", "indexed-only", "no-documentation"),
+            "core-documented" to listOf("core-only"))
+}
+
+// Java bindings for the model are generated into their own source root and compiled into the jar alongside it
+val javaBindingsDir = "$buildDir/generated/ecs-java"
+val writeJavaBindings = tasks.getByName<io.jsq.ecs.ToJavaTask>("writeJavaBindings") {
+    namespace = "elastic.ecs"
+    rootShapeName = "Record"
+    packageName = "elastic.ecs"
+    modelPath = writeModel.targetPath
+    targetDirectoryPath = javaBindingsDir
+    dependsOn(writeModel)
+}
 
-    doLast {
-        val smithyManifest = file(modelTargetDir.absolutePath + "/manifest")
-        val writer = PrintWriter(smithyManifest.absolutePath)
-        writer.append("/META-INF/smithy/elastic-common-schema.json\n")
-        writer.close()
-    }
+sourceSets["main"].java.srcDir(javaBindingsDir)
+tasks.compileJava {
+    dependsOn(writeJavaBindings)
 }
 
 tasks.jar {
@@ -48,10 +48,99 @@ tasks.assemble {
     dependsOn("copyEcsSchemaFiles")
 }
 
+// Pre-parse the bundled schemata into a binary snapshot that is packaged next to the ECS manifest
+val snapshotDir = "$buildDir/generated/ecs-snapshot"
+val writeSchemaSnapshot = tasks.register<JavaExec>("writeSchemaSnapshot") {
+    val snapshotFile = file("$snapshotDir/META-INF/elastic-common-schema/schemata.snapshot")
+    inputs.dir(schemataDir)
+    outputs.file(snapshotFile)
+
+    classpath = files(sourceSets["main"].java.outputDir, "$projectDir/src/main/resources") +
+            configurations["runtimeClasspath"]
+    main = "io.jsq.ecs.SchemaSnapshot"
+    args(snapshotFile.absolutePath)
+
+    dependsOn(tasks.compileJava)
+    doFirst {
+        snapshotFile.parentFile.mkdirs()
+    }
+}
+
+// Record the content hash of the bundled YAML next to the manifest, so that the bundled snapshot and fieldset index can
+// be checked against it at runtime without hashing every schema file
+val writeContentHash = tasks.register<JavaExec>("writeContentHash") {
+    val hashFile = file("$snapshotDir/META-INF/elastic-common-schema/schemata.sha256")
+    inputs.dir(schemataDir)
+    outputs.file(hashFile)
+
+    classpath = files(sourceSets["main"].java.outputDir, "$projectDir/src/main/resources") +
+            configurations["runtimeClasspath"]
+    main = "io.jsq.ecs.Loader"
+    args(hashFile.absolutePath)
+
+    dependsOn(tasks.compileJava)
+    doFirst {
+        hashFile.parentFile.mkdirs()
+    }
+}
+
+// Index the file defining each fieldset and where each is reused, so that subsets of ECS can be loaded cheaply
+val writeFieldsetIndex = tasks.register<JavaExec>("writeFieldsetIndex") {
+    val indexFile = file("$snapshotDir/META-INF/elastic-common-schema/fieldsets.index")
+    inputs.dir(schemataDir)
+    outputs.file(indexFile)
+
+    classpath = files(sourceSets["main"].java.outputDir, "$projectDir/src/main/resources") +
+            configurations["runtimeClasspath"]
+    main = "io.jsq.ecs.FieldsetIndex"
+    args(indexFile.absolutePath)
+
+    dependsOn(tasks.compileJava)
+    doFirst {
+        indexFile.parentFile.mkdirs()
+    }
+}
+
+sourceSets["main"].resources.srcDir(snapshotDir)
+tasks.processResources {
+    dependsOn(writeSchemaSnapshot, writeFieldsetIndex, writeContentHash)
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
 }
 
+// Benchmarks live in their own source set so that JMH never ends up on the plugin's runtime classpath. Run them with
+// `./gradlew -p buildSrc jmh`, optionally passing JMH arguments via -PjmhArgs="..."
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output
+    runtimeClasspath += sourceSets["main"].output
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations["implementation"])
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.21")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.21")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks with the GC profiler enabled."
+
+    val resultsFile = file("$buildDir/reports/jmh/results.json")
+    classpath = jmh.runtimeClasspath
+    main = "org.openjdk.jmh.Main"
+    args("-prof", "gc", "-rf", "json", "-rff", resultsFile.absolutePath)
+    if (project.hasProperty("jmhArgs")) {
+        args(project.property("jmhArgs").toString().split(" ").filter { it.isNotEmpty() })
+    }
+
+    doFirst {
+        resultsFile.parentFile.mkdirs()
+    }
+}
+
 // Use Junit5's test runner.
 tasks.withType<Test> {
     useJUnitPlatform()
@@ -0,0 +1,54 @@
+package io.jsq.ecs;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures categorization checks in events per second on a single thread, both from the values of an event and from
+ * pre-encoded masks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class CategorizationCheckerBenchmark {
+    private CategorizationChecker checker;
+    private List<String> categories;
+    private List<String> types;
+    private long categoryMask;
+    private long typeMask;
+
+    @Setup
+    public void setUp() {
+        checker = CategorizationChecker.compile(Loader.loadSchemata());
+        categories = Arrays.asList("network", "web");
+        types = Arrays.asList("access", "connection");
+        categoryMask = (1L << checker.categoryId("network")) | (1L << checker.categoryId("web"));
+        typeMask = (1L << checker.typeId("access")) | (1L << checker.typeId("connection"));
+    }
+
+    @Benchmark
+    public int checkValues() {
+        return checker.check("event", categories, types);
+    }
+
+    @Benchmark
+    public int checkMasks() {
+        return checker.check(categoryMask, typeMask);
+    }
+}
@@ -0,0 +1,69 @@
+package io.jsq.ecs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures conversion throughput between dotted and nested events in events per second on a single thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class DocumentCodecBenchmark {
+    private static final String NESTED = "{\"@timestamp\": \"2019-08-01T12:00:00.000Z\","
+            + " \"ecs\": {\"version\": \"1.5.0\"},"
+            + " \"event\": {\"kind\": \"event\", \"category\": \"web\", \"duration\": 1250000},"
+            + " \"http\": {\"request\": {\"method\": \"get\"}, \"response\": {\"status_code\": 200,"
+            + " \"body\": {\"bytes\": 1024}}}, \"url\": {\"original\": \"https://example.com/index.html\","
+            + " \"domain\": \"example.com\", \"path\": \"/index.html\"}, \"source\": {\"ip\": \"10.42.42.42\","
+            + " \"port\": 53124, \"geo\": {\"location\": {\"lat\": 41.12, \"lon\": -71.34}}},"
+            + " \"destination\": {\"ip\": \"2001:db8::8a2e:370:7334\", \"port\": 443},"
+            + " \"user_agent\": {\"original\": \"curl/7.64.1\"}, \"tags\": [\"production\", \"edge\"],"
+            + " \"labels\": {\"env\": \"prod\"}}";
+    private static final String FLAT = "{\"@timestamp\": \"2019-08-01T12:00:00.000Z\", \"ecs.version\": \"1.5.0\","
+            + " \"event.kind\": \"event\", \"event.category\": \"web\", \"event.duration\": 1250000,"
+            + " \"http.request.method\": \"get\", \"http.response.status_code\": 200,"
+            + " \"http.response.body.bytes\": 1024, \"url.original\": \"https://example.com/index.html\","
+            + " \"url.domain\": \"example.com\", \"url.path\": \"/index.html\", \"source.ip\": \"10.42.42.42\","
+            + " \"source.port\": 53124, \"source.geo.location\": {\"lat\": 41.12, \"lon\": -71.34},"
+            + " \"destination.ip\": \"2001:db8::8a2e:370:7334\", \"destination.port\": 443,"
+            + " \"user_agent.original\": \"curl/7.64.1\", \"tags\": [\"production\", \"edge\"],"
+            + " \"labels.env\": \"prod\"}";
+
+    private DocumentCodec codec;
+    private byte[] nested;
+    private byte[] flat;
+
+    @Setup
+    public void setUp() {
+        codec = DocumentCodec.compile(Loader.loadSchemata());
+        nested = NESTED.getBytes(StandardCharsets.UTF_8);
+        flat = FLAT.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] nest() throws IOException {
+        return codec.nest(flat);
+    }
+
+    @Benchmark
+    public byte[] flatten() throws IOException {
+        return codec.flatten(nested);
+    }
+}
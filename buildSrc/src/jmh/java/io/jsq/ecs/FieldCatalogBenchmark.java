@@ -0,0 +1,77 @@
+package io.jsq.ecs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of looking up every catalogued path once, compared with a {@link HashMap} of the same paths.
+ * Keys are copies of the catalogued paths, so neither lookup can short-circuit on identity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class FieldCatalogBenchmark {
+    private FieldCatalog catalog;
+    private Map<String, Integer> map;
+    private String[] keys;
+    private char[][] keyChars;
+
+    @Setup
+    public void setUp() {
+        catalog = FieldCatalog.compile(Loader.loadSchemata());
+        map = new HashMap<>();
+        keys = new String[catalog.size()];
+        keyChars = new char[catalog.size()][];
+        for (int i = 0; i < catalog.size(); i++) {
+            map.put(catalog.getPath(i), i);
+            keys[i] = new String(catalog.getPath(i).toCharArray());
+            keyChars[i] = keys[i].toCharArray();
+        }
+    }
+
+    @Benchmark
+    public int lookUpStrings() {
+        int sum = 0;
+        for (String key : keys) {
+            sum += catalog.indexOf(key);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public int lookUpCharacters() {
+        int sum = 0;
+        for (char[] key : keyChars) {
+            sum += catalog.indexOf(key, 0, key.length);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public int lookUpHashMap() {
+        int sum = 0;
+        for (String key : keys) {
+            sum += map.get(key);
+        }
+
+        return sum;
+    }
+}
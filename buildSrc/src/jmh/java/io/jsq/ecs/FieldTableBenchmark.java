@@ -0,0 +1,62 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.Schema;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of counting the keyword fields with an {@code ignore_above} at every catalogued path, with the
+ * bitmaps of a {@link FieldTable} compared with walking the definitions held by the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class FieldTableBenchmark {
+    private FieldCatalog catalog;
+    private FieldTable table;
+
+    @Setup
+    public void setUp() {
+        List<Schema> schemata = Loader.loadSchemata();
+        catalog = FieldCatalog.compile(schemata);
+        table = FieldTable.compile(catalog);
+    }
+
+    @Benchmark
+    public int queryBitmaps() {
+        BitSet rows = table.ofType(FieldSchema.Type.KEYWORD);
+        rows.and(table.with(FieldTable.Attribute.IGNORE_ABOVE));
+
+        return rows.cardinality();
+    }
+
+    @Benchmark
+    public int walkDefinitions() {
+        int count = 0;
+        for (int i = 0; i < catalog.size(); i++) {
+            FieldSchema field = catalog.getField(i);
+            if (field.getType() == FieldSchema.Type.KEYWORD && field.getIgnoreAbove().isPresent()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,143 @@
+package io.jsq.ecs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.tools.ToolProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+/**
+ * Compares reading and writing an event with the bindings generated by {@link JavaBindingGenerator} against Jackson's
+ * {@link ObjectMapper} binding the same event to a map, in events per second on a single thread.
+ *
+ * <p>The bindings are generated from the bundled schemata and compiled when the benchmark is set up, and are invoked
+ * through method handles since they are not on the benchmark's classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class JavaBindingBenchmark {
+    private static final String NAMESPACE = "elastic.ecs";
+    private static final String ROOT_SHAPE_NAME = "Record";
+    private static final String EVENT = "{\"@timestamp\": \"2019-08-01T12:00:00.000Z\","
+            + " \"ecs\": {\"version\": \"1.5.0\"},"
+            + " \"event\": {\"kind\": \"event\", \"category\": \"web\", \"duration\": 1250000},"
+            + " \"http\": {\"request\": {\"method\": \"get\"}, \"response\": {\"status_code\": 200,"
+            + " \"body\": {\"bytes\": 1024}}}, \"url\": {\"original\": \"https://example.com/index.html\","
+            + " \"domain\": \"example.com\", \"path\": \"/index.html\"}, \"source\": {\"ip\": \"10.42.42.42\","
+            + " \"port\": 53124, \"geo\": {\"location\": {\"lat\": 41.12, \"lon\": -71.34}}},"
+            + " \"destination\": {\"ip\": \"2001:db8::8a2e:370:7334\", \"port\": 443},"
+            + " \"user_agent\": {\"original\": \"curl/7.64.1\"}, \"tags\": [\"production\", \"edge\"],"
+            + " \"labels\": {\"env\": \"prod\"}}";
+
+    private final JsonFactory json = new JsonFactory();
+    private final ObjectMapper mapper = new ObjectMapper(json);
+    private Path directory;
+    private URLClassLoader loader;
+    private MethodHandle readFrom;
+    private MethodHandle writeTo;
+    private byte[] event;
+    private Object record;
+    private Map<?, ?> map;
+
+    @Setup
+    public void setUp() throws Throwable {
+        SmithyModelBuilder builder = new SmithyModelBuilder(NAMESPACE, ROOT_SHAPE_NAME);
+        builder.addSchemata(Loader.loadSchemata());
+        Model model = builder.build().unwrap();
+        JavaBindingGenerator generator = new JavaBindingGenerator(
+                model, ShapeId.fromParts(NAMESPACE, ROOT_SHAPE_NAME), NAMESPACE);
+
+        directory = Files.createTempDirectory("ecs-bindings");
+        List<String> arguments = new ArrayList<>(Arrays.asList(
+                "-d", directory.toString(), "-cp", System.getProperty("java.class.path")));
+        generator.write(directory.resolve("src")).forEach(file -> arguments.add(file.toString()));
+        if (ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(new String[0])) != 0) {
+            throw new RuntimeException("Unable to compile the generated bindings");
+        }
+
+        loader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, getClass().getClassLoader());
+        Class<?> recordClass = loader.loadClass(NAMESPACE + "." + ROOT_SHAPE_NAME);
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        readFrom = lookup.findStatic(recordClass, "readFrom", MethodType.methodType(recordClass, JsonParser.class))
+                .asType(MethodType.methodType(Object.class, JsonParser.class));
+        writeTo = lookup.findVirtual(recordClass, "writeTo", MethodType.methodType(void.class, JsonGenerator.class))
+                .asType(MethodType.methodType(void.class, Object.class, JsonGenerator.class));
+
+        event = EVENT.getBytes(StandardCharsets.UTF_8);
+        record = readGenerated();
+        map = readObjectMapper();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loader.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object readGenerated() throws Throwable {
+        try (JsonParser parser = json.createParser(event)) {
+            return (Object) readFrom.invokeExact(parser);
+        }
+    }
+
+    @Benchmark
+    public Map<?, ?> readObjectMapper() throws IOException {
+        return mapper.readValue(event, Map.class);
+    }
+
+    @Benchmark
+    public byte[] writeGenerated() throws Throwable {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(event.length);
+        try (JsonGenerator generator = json.createGenerator(out)) {
+            writeTo.invokeExact(record, generator);
+        }
+
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeObjectMapper() throws IOException {
+        return mapper.writeValueAsBytes(map);
+    }
+}
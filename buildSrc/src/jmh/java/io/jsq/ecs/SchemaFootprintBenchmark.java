@@ -0,0 +1,68 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.Schema;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained by each copy of the schemata when several copies are loaded in full, with
+ * {@link Loader#loadPrecompiledSchemata()}, or lean, with {@link Loader#loadLeanSchemata()}. The result is reported as
+ * the {@code retainedBytesPerCopy} secondary result, the difference in used heap after a full collection before and
+ * after loading, divided by the number of copies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchemaFootprintBenchmark {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Param({"full", "lean"})
+    public String mode;
+
+    @Param({"20"})
+    public int copies;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPerCopy;
+    }
+
+    @Benchmark
+    public List<List<Schema>> loadCopies(Footprint footprint) {
+        long before = usedHeapAfterCollection();
+        List<List<Schema>> retained = new ArrayList<>(copies);
+        for (int i = 0; i < copies; i++) {
+            retained.add(mode.equals("lean") ? Loader.loadLeanSchemata() : Loader.loadPrecompiledSchemata());
+        }
+        footprint.retainedBytesPerCopy = (usedHeapAfterCollection() - before) / copies;
+
+        return retained;
+    }
+
+    private static long usedHeapAfterCollection() {
+        // A single request may leave garbage promoted during the collection itself
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
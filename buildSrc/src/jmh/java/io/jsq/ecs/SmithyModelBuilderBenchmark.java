@@ -0,0 +1,146 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.Schema;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.loader.ModelAssembler;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.ModelSerializer;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.validation.ValidatedResult;
+
+/**
+ * Benchmarks each stage of converting the loaded schemata into a serialized Smithy model in isolation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmithyModelBuilderBenchmark {
+    private static final String NAMESPACE = "example.bench";
+    private static final String ROOT_SHAPE_NAME = "Record";
+
+    @State(Scope.Benchmark)
+    public static class SingleSchema {
+        @Param({"base", "event", "file", "http", "process", "user"})
+        public String schemaName;
+
+        Schema schema;
+
+        @Setup
+        public void setUp() {
+            schema = Loader.loadSchemata().stream()
+                    .filter(s -> s.getName().equals(schemaName))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No schema named " + schemaName));
+        }
+    }
+
+    // A single wide schema, to check that adding a schema takes time linear in its number of fields
+    @State(Scope.Benchmark)
+    public static class WideSchema {
+        @Param({"12500", "100000"})
+        public int fieldCount;
+
+        Schema schema;
+
+        @Setup
+        public void setUp() {
+            schema = SyntheticSchemaGenerator.builder()
+                    .fieldsets(1)
+                    .fieldsPerSet(fieldCount)
+                    .pathBranching(fieldCount / 10)
+                    .build()
+                    .generate()
+                    .get(0);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class AllSchemata {
+        List<Schema> schemata;
+
+        @Setup
+        public void setUp() {
+            schemata = Loader.loadSchemata();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PopulatedBuilder {
+        SmithyModelBuilder builder;
+
+        @Setup(Level.Invocation)
+        public void setUp(AllSchemata all) {
+            builder = newBuilder(all.schemata);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BuiltShapes {
+        List<Shape> shapes;
+        Model model;
+
+        @Setup
+        public void setUp(AllSchemata all) {
+            shapes = newBuilder(all.schemata).buildShapes();
+            model = assemble(shapes).unwrap();
+        }
+    }
+
+    @Benchmark
+    public SmithyModelBuilder addSchema(SingleSchema state) {
+        SmithyModelBuilder builder = new SmithyModelBuilder(NAMESPACE, ROOT_SHAPE_NAME);
+        builder.addSchema(state.schema);
+        return builder;
+    }
+
+    @Benchmark
+    public SmithyModelBuilder addWideSchema(WideSchema state) {
+        SmithyModelBuilder builder = new SmithyModelBuilder(NAMESPACE, ROOT_SHAPE_NAME);
+        builder.addSchema(state.schema);
+        return builder;
+    }
+
+    @Benchmark
+    public SmithyModelBuilder applyReuseDirectives(PopulatedBuilder state) {
+        state.builder.applyReuseDirectives();
+        return state.builder;
+    }
+
+    @Benchmark
+    public ValidatedResult<Model> assembleAndValidate(BuiltShapes state) {
+        return assemble(state.shapes);
+    }
+
+    @Benchmark
+    public String serialize(BuiltShapes state) {
+        return Node.prettyPrintJson(ModelSerializer.builder().build().serialize(state.model));
+    }
+
+    private static SmithyModelBuilder newBuilder(List<Schema> schemata) {
+        SmithyModelBuilder builder = new SmithyModelBuilder(NAMESPACE, ROOT_SHAPE_NAME);
+        schemata.forEach(builder::addSchema);
+        return builder;
+    }
+
+    private static ValidatedResult<Model> assemble(List<Shape> shapes) {
+        ModelAssembler assembler = Model.assembler(SmithyModelBuilderBenchmark.class.getClassLoader());
+        shapes.forEach(assembler::addShape);
+        return assembler.assemble();
+    }
+}
@@ -0,0 +1,77 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.Schema;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.smithy.model.shapes.Shape;
+
+/**
+ * Measures how model generation scales with the size and shape of the input by converting synthetic schemata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyntheticSchemaBenchmark {
+    @Param({"10", "100", "400"})
+    public int fieldsets;
+
+    @Param({"50", "500"})
+    public int fieldsPerSet;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"10"})
+    public int allowedValues;
+
+    @Param({"0.25"})
+    public double arrayRatio;
+
+    @Param({"5"})
+    public int reuseFanOut;
+
+    private List<Schema> schemata;
+
+    @Setup
+    public void setUp() {
+        schemata = SyntheticSchemaGenerator.builder()
+                .fieldsets(fieldsets)
+                .fieldsPerSet(fieldsPerSet)
+                .depth(depth)
+                .allowedValues(allowedValues)
+                .enumRatio(0.5)
+                .arrayRatio(arrayRatio)
+                .reusableFieldsets(Math.max(1, fieldsets / 10))
+                .reuseFanOut(Math.min(reuseFanOut, fieldsets - Math.max(1, fieldsets / 10)))
+                .build()
+                .generate();
+    }
+
+    @Benchmark
+    public List<Shape> buildShapes() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.bench", "Record");
+        schemata.forEach(builder::addSchema);
+        return builder.buildShapes();
+    }
+
+    @Benchmark
+    public List<Shape> buildShapesConcurrently() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.bench", "Record");
+        builder.addSchemata(schemata);
+        return builder.buildShapes();
+    }
+}
@@ -0,0 +1,176 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.AllowedValue;
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.Schema;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the categorization fields of ECS events, i.e., {@code event.kind}, {@code event.category}, and {@code
+ * event.type}, against their allowed values and against the {@code expected_event_types} of each category.
+ *
+ * <p>Each allowed value is assigned a small integer ID, and the types expected for each category are precomputed as
+ * a bitmask over type IDs. Once an event's categories and types are encoded as bitmasks, checking that every type is
+ * expected for at least one of its categories takes a bitwise OR per category and a single AND. Categories that list
+ * no expected types accept any type. Instances are immutable and may be shared across threads.
+ */
+final class CategorizationChecker {
+    private static final long ALL_TYPES = -1L;
+
+    enum Violation {
+        /** The kind is not one of the allowed values of {@code event.kind}. */
+        UNKNOWN_KIND,
+        /** A category is not one of the allowed values of {@code event.category}. */
+        UNKNOWN_CATEGORY,
+        /** A type is not one of the allowed values of {@code event.type}. */
+        UNKNOWN_TYPE,
+        /** A type is not expected for any of the event's categories. */
+        UNEXPECTED_TYPE;
+
+        /**
+         * Gets the bit representing this violation in the flags returned by {@link CategorizationChecker#check}.
+         */
+        int flag() {
+            return 1 << ordinal();
+        }
+    }
+
+    private final Map<String, Integer> kindIds;
+    private final Map<String, Integer> categoryIds;
+    private final Map<String, Integer> typeIds;
+    private final long[] expectedTypes;
+
+    private CategorizationChecker(
+            Map<String, Integer> kindIds,
+            Map<String, Integer> categoryIds,
+            Map<String, Integer> typeIds,
+            long[] expectedTypes
+    ) {
+        this.kindIds = kindIds;
+        this.categoryIds = categoryIds;
+        this.typeIds = typeIds;
+        this.expectedTypes = expectedTypes;
+    }
+
+    static CategorizationChecker compile(List<Schema> schemata) {
+        Schema event = schemata.stream()
+                .filter(schema -> schema.getName().equals("event"))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No `event` schema found"));
+        List<AllowedValue> kinds = allowedValues(event, "kind");
+        List<AllowedValue> categories = allowedValues(event, "category");
+        List<AllowedValue> types = allowedValues(event, "type");
+
+        Map<String, Integer> categoryIds = assignIds(categories);
+        Map<String, Integer> typeIds = assignIds(types);
+        long[] expectedTypes = new long[categoryIds.size()];
+        for (AllowedValue category : categories) {
+            int categoryId = categoryIds.get(category.getName());
+            if (!category.getExpectedEventTypes().isPresent()) {
+                expectedTypes[categoryId] = ALL_TYPES;
+            }
+            for (String type : category.getExpectedEventTypes().orElse(Collections.emptyList())) {
+                Integer typeId = typeIds.get(type);
+                if (typeId == null) {
+                    throw new RuntimeException("The event category `" + category.getName() + "` expects `" + type
+                            + "`, which is not an allowed event type");
+                }
+                expectedTypes[categoryId] |= 1L << typeId;
+            }
+        }
+
+        return new CategorizationChecker(assignIds(kinds), categoryIds, typeIds, expectedTypes);
+    }
+
+    /**
+     * @return the ID of the given kind, or -1 if it is not an allowed value.
+     */
+    int kindId(String kind) {
+        return kindIds.getOrDefault(kind, -1);
+    }
+
+    /**
+     * @return the ID of the given category, or -1 if it is not an allowed value.
+     */
+    int categoryId(String category) {
+        return categoryIds.getOrDefault(category, -1);
+    }
+
+    /**
+     * @return the ID of the given type, or -1 if it is not an allowed value.
+     */
+    int typeId(String type) {
+        return typeIds.getOrDefault(type, -1);
+    }
+
+    /**
+     * Checks an event's categorization. The kind may be null, and the categories and types may be empty, if the
+     * event does not specify them.
+     *
+     * @return the {@link Violation#flag() flags} of every violation found, or zero if there are none.
+     */
+    int check(String kind, Collection<String> categories, Collection<String> types) {
+        int violations = kind == null || kindIds.containsKey(kind) ? 0 : Violation.UNKNOWN_KIND.flag();
+        long categoryMask = 0;
+        for (String category : categories) {
+            int categoryId = categoryId(category);
+            if (categoryId < 0) {
+                violations |= Violation.UNKNOWN_CATEGORY.flag();
+            } else {
+                categoryMask |= 1L << categoryId;
+            }
+        }
+        long typeMask = 0;
+        for (String type : types) {
+            int typeId = typeId(type);
+            if (typeId < 0) {
+                violations |= Violation.UNKNOWN_TYPE.flag();
+            } else {
+                typeMask |= 1L << typeId;
+            }
+        }
+
+        return violations | check(categoryMask, typeMask);
+    }
+
+    /**
+     * Checks that every type in a mask of type IDs is expected for at least one category in a mask of category IDs.
+     * If no categories are given, any type is accepted.
+     *
+     * @return {@link Violation#UNEXPECTED_TYPE}'s flag if a type is unexpected, or zero otherwise.
+     */
+    int check(long categoryMask, long typeMask) {
+        long expected = categoryMask == 0 ? ALL_TYPES : 0;
+        for (long remaining = categoryMask; remaining != 0; remaining &= remaining - 1) {
+            expected |= expectedTypes[Long.numberOfTrailingZeros(remaining)];
+        }
+
+        return (typeMask & ~expected) == 0 ? 0 : Violation.UNEXPECTED_TYPE.flag();
+    }
+
+    private static List<AllowedValue> allowedValues(Schema event, String fieldName) {
+        return event.getFieldList().stream()
+                .filter(field -> field.getName().equals(fieldName))
+                .findFirst()
+                .flatMap(FieldSchema::getAllowedValues)
+                .orElseThrow(() -> new RuntimeException("No allowed values found for event." + fieldName));
+    }
+
+    // IDs index bits of a long, so there may be no more than 64 values
+    private static Map<String, Integer> assignIds(List<AllowedValue> values) {
+        if (values.size() > Long.SIZE) {
+            throw new RuntimeException("Unable to encode more than " + Long.SIZE + " allowed values as a bitmask");
+        }
+
+        Map<String, Integer> ids = new HashMap<>();
+        for (AllowedValue value : values) {
+            ids.putIfAbsent(value.getName(), ids.size());
+        }
+
+        return Collections.unmodifiableMap(ids);
+    }
+}
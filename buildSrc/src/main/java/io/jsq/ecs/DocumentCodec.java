@@ -0,0 +1,427 @@
+package io.jsq.ecs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.Schema;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Converts ECS events between their flat form, in which every field is keyed by its dotted path (e.g.,
+ * {@code {"http.response.body.bytes": 123}}), and their nested form (e.g., {@code {"http": {"response": {"body":
+ * {"bytes": 123}}}}}).
+ *
+ * <p>The schemata are compiled into a table of every field path, including those added by reuse, in which each path
+ * is assigned an ordinal in depth-first order along with its pre-encoded JSON keys. Converting an event is then a
+ * single pass over its tokens: values are copied verbatim from the input bytes, and nesting only requires sorting the
+ * ordinals of the fields present. Inputs may mix both forms. Where a field, or a key that is not an ECS field, appears
+ * more than once, in either form, the last value wins, in the position of the first.
+ *
+ * <p>Keys that are not ECS fields are preserved beneath the deepest ECS object that contains them. Members of fields
+ * of type {@code object}, such as {@code labels.env}, are treated likewise. Instances are immutable and may be
+ * shared across threads.
+ */
+final class DocumentCodec {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final PathNode[] nodes;
+    private final ThreadLocal<ConversionState> conversionStates;
+
+    private DocumentCodec(PathNode[] nodes) {
+        this.nodes = nodes;
+        this.conversionStates = ThreadLocal.withInitial(() -> new ConversionState(nodes.length));
+    }
+
+    static DocumentCodec compile(List<Schema> schemata) {
+        return compile(FieldCatalog.compile(schemata));
+    }
+
+    static DocumentCodec compile(FieldCatalog catalog) {
+        Builder root = new Builder(null, "");
+        for (int i = 0; i < catalog.size(); i++) {
+            root.createDescendant(catalog.getPath(i)).field = catalog.getField(i);
+        }
+
+        List<PathNode> nodes = new ArrayList<>();
+        root.build(null, nodes);
+        // Children always follow their parents, so iterating in reverse indexes each subtree before its parent
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            nodes.get(i).indexDescendants();
+        }
+
+        return new DocumentCodec(nodes.toArray(new PathNode[0]));
+    }
+
+    /**
+     * Rewrites an event so that every ECS field is nested within an object for each element of its path.
+     */
+    byte[] nest(byte[] event) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(event.length + 64);
+        nest(event, out);
+        return out.toByteArray();
+    }
+
+    void nest(byte[] event, OutputStream out) throws IOException {
+        collect(event).writeNested(event, nodes, out);
+    }
+
+    /**
+     * Rewrites an event so that every ECS field is a member of the top-level object keyed by its dotted path.
+     */
+    byte[] flatten(byte[] event) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(event.length);
+        flatten(event, out);
+        return out.toByteArray();
+    }
+
+    void flatten(byte[] event, OutputStream out) throws IOException {
+        collect(event).writeFlat(event, nodes, out);
+    }
+
+    /**
+     * Sets the generation of the current thread's conversion state, e.g., to test how the counter wraps. The next
+     * event converted on this thread is of the following generation.
+     */
+    void setGeneration(int generation) {
+        conversionStates.get().generation = generation;
+    }
+
+    private ConversionState collect(byte[] event) throws IOException {
+        ConversionState state = conversionStates.get();
+        state.reset();
+        try (JsonParser parser = JSON.createParser(event)) {
+            expectObject(parser.nextToken());
+            collect(parser, nodes[0], state);
+        }
+
+        return state;
+    }
+
+    // Records the location of each value beneath the given container, descending into ECS objects
+    private void collect(JsonParser parser, PathNode container, ConversionState state) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            PathNode node = container.descendants.get(key);
+            if (node != null && token == JsonToken.START_OBJECT && node.isContainer()) {
+                collect(parser, node, state);
+                continue;
+            }
+
+            int start = (int) parser.getTokenLocation().getByteOffset();
+            int end = endOfValue(parser, token);
+            if (node != null) {
+                state.putValue(node, start, end);
+            } else {
+                PathNode owner = container;
+                String memberKey = key;
+                // Keys such as "labels.env" address a member of a field of type object
+                for (int i = key.lastIndexOf('.'); i > 0; i = key.lastIndexOf('.', i - 1)) {
+                    PathNode prefix = container.descendants.get(key.substring(0, i));
+                    if (prefix != null) {
+                        owner = prefix;
+                        memberKey = key.substring(i + 1);
+                        break;
+                    }
+                }
+                state.putMember(owner, memberKey, start, end);
+            }
+        }
+    }
+
+    private static int endOfValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+        } else {
+            // String contents are otherwise read lazily, leaving the parser positioned before the closing quote
+            parser.finishToken();
+        }
+
+        return (int) parser.getCurrentLocation().getByteOffset();
+    }
+
+    private static void expectObject(JsonToken token) {
+        if (token != JsonToken.START_OBJECT) {
+            throw new RuntimeException("Expected an event object but found " + token);
+        }
+    }
+
+    private static byte[] encodeKey(String key) {
+        StringBuilder builder = new StringBuilder(key.length() + 3).append('"');
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+
+        return builder.append("\":").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class PathNode {
+        private final int ordinal;
+        private final int depth;
+        private final PathNode parent;
+        private final String path;
+        private final byte[] encodedKey;
+        private final byte[] encodedPath;
+        private final FieldSchema field;
+        private final Map<String, PathNode> children = new HashMap<>();
+        // Every node beneath this one keyed by its dotted path relative to this node
+        private final Map<String, PathNode> descendants = new HashMap<>();
+        private int lastDescendantOrdinal;
+
+        PathNode(int ordinal, PathNode parent, String key, String path, FieldSchema field) {
+            this.ordinal = ordinal;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.parent = parent;
+            this.path = path;
+            this.encodedKey = encodeKey(key);
+            this.encodedPath = encodeKey(path);
+            this.field = field;
+        }
+
+        // Whether an object value for this node holds further ECS fields rather than being the field's value
+        boolean isContainer() {
+            return !children.isEmpty() && (field == null || field.getType() == FieldSchema.Type.OBJECT
+                    && !field.getObjectType().isPresent());
+        }
+
+        void indexDescendants() {
+            children.forEach((key, child) -> {
+                descendants.put(key, child);
+                child.descendants.forEach((relativePath, d) -> descendants.put(key + "." + relativePath, d));
+            });
+        }
+    }
+
+    private static final class Builder {
+        private final String key;
+        private final String path;
+        private final Map<String, Builder> children = new TreeMap<>();
+        private FieldSchema field;
+
+        Builder(Builder parent, String key) {
+            this.key = key;
+            this.path = parent == null || parent.path.isEmpty() ? key : parent.path + "." + key;
+        }
+
+        Builder createDescendant(String relativePath) {
+            Builder node = this;
+            for (String key : relativePath.split("\\.")) {
+                Builder parent = node;
+                node = parent.children.computeIfAbsent(key, k -> new Builder(parent, k));
+            }
+
+            return node;
+        }
+
+        // Assigns ordinals in depth-first order, so that sorting nodes by ordinal groups every subtree together
+        PathNode build(PathNode parent, List<PathNode> nodes) {
+            PathNode node = new PathNode(nodes.size(), parent, key, path, field);
+            nodes.add(node);
+            for (Builder child : children.values()) {
+                node.children.put(child.key, child.build(node, nodes));
+            }
+            node.lastDescendantOrdinal = nodes.size() - 1;
+
+            return node;
+        }
+    }
+
+    // Per-thread scratch space for converting an event, reused across events so that converting allocates little
+    // beyond the parser itself
+    private static final class ConversionState {
+        // Entries are sorted by a key combining their position with their index. ECS values sort by node ordinal;
+        // members of a node sort after all of its descendants.
+        private long[] sortKeys = new long[64];
+        private int[] entryNodes = new int[64];
+        private int[] starts = new int[64];
+        private int[] ends = new int[64];
+        private String[] memberKeys = new String[64];
+        private int size;
+        // The entry holding each node's value, valid only where the node's generation matches the current one
+        private final int[] valueEntries;
+        private final int[] generations;
+        private int generation;
+        // The entry holding each member's value, keyed by its dotted path
+        private final Map<String, Integer> memberEntries = new HashMap<>();
+        // The objects currently open while writing, and whether each has been written a member yet
+        private final int[] openNodes = new int[64];
+        private final boolean[] openHasMembers = new boolean[64];
+
+        ConversionState(int nodeCount) {
+            valueEntries = new int[nodeCount];
+            generations = new int[nodeCount];
+        }
+
+        void reset() {
+            size = 0;
+            if (++generation == 0) {
+                // Once the counter wraps, a node's generation could be left over from an earlier event, so forget all
+                generation = 1;
+                Arrays.fill(generations, 0);
+            }
+            memberEntries.clear();
+        }
+
+        void putValue(PathNode node, int start, int end) {
+            if (generations[node.ordinal] == generation) {
+                // Later values replace earlier ones for the same field
+                int entry = valueEntries[node.ordinal];
+                starts[entry] = start;
+                ends[entry] = end;
+                return;
+            }
+
+            generations[node.ordinal] = generation;
+            valueEntries[node.ordinal] = add((long) node.ordinal << 1, node.ordinal, null, start, end);
+        }
+
+        void putMember(PathNode owner, String key, int start, int end) {
+            String path = owner.path.isEmpty() ? key : owner.path + "." + key;
+            Integer entry = memberEntries.get(path);
+            if (entry != null) {
+                // As for fields, later values replace earlier ones for the same key
+                starts[entry] = start;
+                ends[entry] = end;
+                return;
+            }
+
+            memberEntries.put(path, add(((long) owner.lastDescendantOrdinal << 1) | 1, owner.ordinal, key, start, end));
+        }
+
+        private int add(long position, int node, String memberKey, int start, int end) {
+            if (size == entryNodes.length) {
+                int capacity = size * 2;
+                sortKeys = Arrays.copyOf(sortKeys, capacity);
+                entryNodes = Arrays.copyOf(entryNodes, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                memberKeys = Arrays.copyOf(memberKeys, capacity);
+            }
+
+            sortKeys[size] = (position << 31) | size;
+            entryNodes[size] = node;
+            memberKeys[size] = memberKey;
+            starts[size] = start;
+            ends[size] = end;
+            return size++;
+        }
+
+        void writeNested(byte[] event, PathNode[] nodes, OutputStream out) throws IOException {
+            Arrays.sort(sortKeys, 0, size);
+            out.write('{');
+            int openCount = 1;
+            openNodes[0] = 0;
+            openHasMembers[0] = false;
+
+            for (int i = 0; i < size; i++) {
+                int entry = (int) (sortKeys[i] & Integer.MAX_VALUE);
+                PathNode node = nodes[entryNodes[entry]];
+                boolean member = memberKeys[entry] != null;
+                PathNode container = member ? node : node.parent;
+
+                // Close objects until the innermost open object is an ancestor of (or is) the container, then open
+                // the remaining objects down to the container
+                int common = 0;
+                while (common < openCount && common <= container.depth
+                        && openNodes[common] == ancestorAt(container, common).ordinal) {
+                    common++;
+                }
+                while (openCount > common) {
+                    out.write('}');
+                    openCount--;
+                }
+                for (int depth = openCount; depth <= container.depth; depth++) {
+                    PathNode opened = ancestorAt(container, depth);
+                    writeKey(out, openCount, opened.encodedKey);
+                    out.write('{');
+                    openNodes[openCount] = opened.ordinal;
+                    openHasMembers[openCount] = false;
+                    openCount++;
+                }
+
+                if (member) {
+                    writeKey(out, openCount, encodeKey(memberKeys[entry]));
+                    out.write(event, starts[entry], ends[entry] - starts[entry]);
+                } else if (i + 1 < size && (sortKeys[i + 1] & (1L << 31)) != 0
+                        && entryNodes[(int) (sortKeys[i + 1] & Integer.MAX_VALUE)] == node.ordinal
+                        && event[starts[entry]] == '{') {
+                    // The node's value is an object that subsequent members will be added to, so leave it open
+                    writeKey(out, openCount, node.encodedKey);
+                    int close = ends[entry] - 1;
+                    out.write(event, starts[entry], close - starts[entry]);
+                    openNodes[openCount] = node.ordinal;
+                    openHasMembers[openCount] = !isEmptyObject(event, starts[entry], close);
+                    openCount++;
+                } else {
+                    writeKey(out, openCount, node.encodedKey);
+                    out.write(event, starts[entry], ends[entry] - starts[entry]);
+                }
+            }
+
+            while (openCount > 0) {
+                out.write('}');
+                openCount--;
+            }
+        }
+
+        // Writes every entry in the order first encountered, keyed by its dotted path
+        void writeFlat(byte[] event, PathNode[] nodes, OutputStream out) throws IOException {
+            out.write('{');
+            for (int entry = 0; entry < size; entry++) {
+                if (entry > 0) {
+                    out.write(',');
+                }
+                PathNode node = nodes[entryNodes[entry]];
+                String memberKey = memberKeys[entry];
+                out.write(memberKey == null
+                        ? node.encodedPath
+                        : encodeKey(node.path.isEmpty() ? memberKey : node.path + "." + memberKey));
+                out.write(event, starts[entry], ends[entry] - starts[entry]);
+            }
+            out.write('}');
+        }
+
+        private void writeKey(OutputStream out, int openCount, byte[] encodedKey) throws IOException {
+            if (openHasMembers[openCount - 1]) {
+                out.write(',');
+            }
+            openHasMembers[openCount - 1] = true;
+            out.write(encodedKey);
+        }
+
+        private static PathNode ancestorAt(PathNode node, int depth) {
+            while (node.depth > depth) {
+                node = node.parent;
+            }
+
+            return node;
+        }
+
+        private static boolean isEmptyObject(byte[] event, int start, int close) {
+            for (int i = start + 1; i < close; i++) {
+                if (event[i] != ' ' && event[i] != '\t' && event[i] != '\n' && event[i] != '\r') {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package io.jsq.ecs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsq.ecs.model.AllowedValue;
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.Schema;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks JSON events against the ECS field definitions.
+ *
+ * <p>The schemata are compiled once into a table of every field path, including those added by reuse, so that
+ * validating an event is a single pass over its JSON tokens with one hash lookup per key and no intermediate tree.
+ * Keys may be nested objects, dotted paths, or any mixture of the two, e.g., {@code {"http.response": {"body.bytes":
+ * 1}}}. Instances are immutable and may be shared across threads.
+ *
+ * <p>As in Elasticsearch, any field may hold an array of values, and {@code null} is treated as an absent value.
+ */
+final class EventValidator {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ViolationHandler IGNORE_VIOLATIONS = (path, violation) -> { };
+
+    enum Violation {
+        /** The event contains a key that is not an ECS field. */
+        UNKNOWN_FIELD,
+        /** The value's JSON type or format does not match the field's type. */
+        INVALID_VALUE,
+        /** The value is not one of the field's {@code allowed_values}. */
+        DISALLOWED_VALUE,
+        /** A required field is absent. */
+        MISSING_REQUIRED_FIELD
+    }
+
+    @FunctionalInterface
+    interface ViolationHandler {
+        void onViolation(String path, Violation violation);
+    }
+
+    private final PathNode root;
+    private final List<String> requiredPaths;
+
+    private EventValidator(PathNode root, List<String> requiredPaths) {
+        this.root = root;
+        this.requiredPaths = requiredPaths;
+    }
+
+    static EventValidator compile(List<Schema> schemata) {
+        return compile(FieldCatalog.compile(schemata));
+    }
+
+    static EventValidator compile(FieldCatalog catalog) {
+        PathNode root = new PathNode("");
+        List<String> requiredPaths = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            FieldSchema field = catalog.getField(i);
+            int requiredIndex = -1;
+            if (catalog.isCanonical(i) && field.isRequired()) {
+                requiredIndex = requiredPaths.size();
+                requiredPaths.add(catalog.getPath(i));
+            }
+            root.createDescendant(catalog.getPath(i)).field = new FieldRule(field, requiredIndex);
+        }
+        root.indexDescendants();
+
+        return new EventValidator(root, Collections.unmodifiableList(requiredPaths));
+    }
+
+    /**
+     * Validates a single JSON event.
+     *
+     * @return the number of violations found.
+     */
+    int validate(byte[] event) throws IOException {
+        return validate(event, IGNORE_VIOLATIONS);
+    }
+
+    int validate(byte[] event, ViolationHandler handler) throws IOException {
+        try (JsonParser parser = JSON.createParser(event)) {
+            return validate(parser, handler);
+        }
+    }
+
+    /**
+     * Validates the next JSON object read from the given parser, leaving the parser positioned on its closing brace.
+     * This allows a stream of concatenated or newline-delimited events to be validated with a single parser.
+     *
+     * @return the number of violations found.
+     */
+    int validate(JsonParser parser, ViolationHandler handler) throws IOException {
+        JsonToken token = parser.getCurrentToken() == JsonToken.START_OBJECT
+                ? JsonToken.START_OBJECT
+                : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new RuntimeException("Expected an event object but found " + token);
+        }
+
+        long[] seen = new long[(requiredPaths.size() + 63) >>> 6];
+        int violations = validateObject(parser, root, seen, handler);
+        for (int i = 0; i < requiredPaths.size(); i++) {
+            if ((seen[i >>> 6] & (1L << i)) == 0) {
+                violations += report(handler, requiredPaths.get(i), Violation.MISSING_REQUIRED_FIELD);
+            }
+        }
+
+        return violations;
+    }
+
+    private int validateObject(JsonParser parser, PathNode container, long[] seen, ViolationHandler handler)
+            throws IOException {
+        int violations = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            PathNode node = container.descendants.get(key);
+            if (node == null) {
+                violations += validateUnindexedKey(parser, token, container, key, handler);
+            } else if (token == JsonToken.VALUE_NULL) {
+                continue;
+            } else if (node.field != null && (token != JsonToken.START_OBJECT || node.descendants.isEmpty()
+                    || node.field.acceptsObjects())) {
+                if (node.field.requiredIndex >= 0) {
+                    seen[node.field.requiredIndex >>> 6] |= 1L << node.field.requiredIndex;
+                }
+                violations += validateValues(parser, token, node.field, node.path, handler);
+            } else if (token == JsonToken.START_OBJECT) {
+                violations += validateObject(parser, node, seen, handler);
+            } else {
+                parser.skipChildren();
+                violations += report(handler, node.path, Violation.INVALID_VALUE);
+            }
+        }
+
+        return violations;
+    }
+
+    // A key not in the table may still be valid if it addresses a member of an `object` field, e.g., "labels.env"
+    private int validateUnindexedKey(
+            JsonParser parser,
+            JsonToken token,
+            PathNode container,
+            String key,
+            ViolationHandler handler
+    ) throws IOException {
+        for (int i = key.lastIndexOf('.'); i > 0; i = key.lastIndexOf('.', i - 1)) {
+            PathNode prefix = container.descendants.get(key.substring(0, i));
+            if (prefix != null && prefix.field != null && prefix.field.type == FieldSchema.Type.OBJECT) {
+                return token == JsonToken.VALUE_NULL ? 0 : validateObjectMember(parser, token, prefix, handler);
+            }
+        }
+
+        parser.skipChildren();
+        return report(handler, container.path.isEmpty() ? key : container.path + "." + key, Violation.UNKNOWN_FIELD);
+    }
+
+    private int validateValues(JsonParser parser, JsonToken token, FieldRule field, String path,
+            ViolationHandler handler) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            return validateValue(parser, token, field, path, handler);
+        }
+
+        int violations = 0;
+        for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+            violations += validateValues(parser, element, field, path, handler);
+        }
+
+        return violations;
+    }
+
+    private int validateValue(JsonParser parser, JsonToken token, FieldRule field, String path,
+            ViolationHandler handler) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+
+        switch (field.type) {
+            case KEYWORD:
+            case TEXT:
+                if (token != JsonToken.VALUE_STRING) {
+                    break;
+                }
+                if (field.allowedValues != null && !field.allowedValues.contains(
+                        parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+                    return report(handler, path, Violation.DISALLOWED_VALUE);
+                }
+                return 0;
+            case IP:
+                if (token == JsonToken.VALUE_STRING && IpAddresses.isValid(
+                        parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+                    return 0;
+                }
+                break;
+            case DATE:
+                if (token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NUMBER_INT) {
+                    return 0;
+                }
+                break;
+            case LONG:
+                if (token == JsonToken.VALUE_NUMBER_INT
+                        && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                    return 0;
+                }
+                break;
+            case INTEGER:
+                if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+                    return 0;
+                }
+                break;
+            case FLOAT:
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return 0;
+                }
+                break;
+            case BOOLEAN:
+                if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                    return 0;
+                }
+                break;
+            case GEO_POINT:
+                if (token == JsonToken.START_OBJECT) {
+                    return validateGeoPoint(parser) ? 0 : report(handler, path, Violation.INVALID_VALUE);
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return 0;
+                }
+                break;
+            case OBJECT:
+                if (token == JsonToken.START_OBJECT) {
+                    int violations = 0;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        violations += validateObjectMember(parser, parser.nextToken(), field, path, handler);
+                    }
+                    return violations;
+                }
+                break;
+            default:
+                throw new RuntimeException("Unrecognized field type: " + field.type);
+        }
+
+        parser.skipChildren();
+        return report(handler, path, Violation.INVALID_VALUE);
+    }
+
+    private int validateObjectMember(JsonParser parser, JsonToken token, PathNode objectField,
+            ViolationHandler handler) throws IOException {
+        return validateObjectMember(parser, token, objectField.field, objectField.path, handler);
+    }
+
+    // The members of an `object` field may be arbitrarily nested, and each leaf value must match its object_type
+    private int validateObjectMember(JsonParser parser, JsonToken token, FieldRule objectField, String path,
+            ViolationHandler handler) throws IOException {
+        if (objectField.memberRule == null) {
+            parser.skipChildren();
+            return 0;
+        }
+        if (token == JsonToken.START_OBJECT) {
+            return validateValue(parser, token, objectField, path, handler);
+        }
+
+        return validateValues(parser, token, objectField.memberRule, path, handler);
+    }
+
+    private static boolean validateGeoPoint(JsonParser parser) throws IOException {
+        boolean valid = true;
+        int coordinates = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ((key.equals("lat") || key.equals("lon")) && token.isNumeric()) {
+                coordinates++;
+            } else {
+                parser.skipChildren();
+                valid = false;
+            }
+        }
+
+        return valid && coordinates == 2;
+    }
+
+    private static int report(ViolationHandler handler, String path, Violation violation) {
+        handler.onViolation(path, violation);
+        return 1;
+    }
+
+    private static String join(String prefix, String suffix) {
+        return prefix.isEmpty() ? suffix : prefix + "." + suffix;
+    }
+
+    private static final class PathNode {
+        private final String path;
+        private final Map<String, PathNode> children = new HashMap<>();
+        // Every node beneath this one keyed by its dotted path relative to this node, so that a flattened key can be
+        // resolved with a single lookup
+        private final Map<String, PathNode> descendants = new HashMap<>();
+        private FieldRule field;
+
+        PathNode(String path) {
+            this.path = path;
+        }
+
+        PathNode createDescendant(String relativePath) {
+            PathNode node = this;
+            int start = 0;
+            while (start <= relativePath.length()) {
+                int end = relativePath.indexOf('.', start);
+                if (end < 0) {
+                    end = relativePath.length();
+                }
+                String key = relativePath.substring(start, end);
+                PathNode parent = node;
+                node = parent.children.computeIfAbsent(key, k -> new PathNode(join(parent.path, k)));
+                start = end + 1;
+            }
+
+            return node;
+        }
+
+        void indexDescendants() {
+            for (Map.Entry<String, PathNode> child : children.entrySet()) {
+                child.getValue().indexDescendants();
+                descendants.put(child.getKey(), child.getValue());
+                child.getValue().descendants.forEach((relativePath, descendant) ->
+                        descendants.put(child.getKey() + "." + relativePath, descendant));
+            }
+        }
+    }
+
+    private static final class FieldRule {
+        private final FieldSchema.Type type;
+        private final CharArraySet allowedValues;
+        private final FieldRule memberRule;
+        private final int requiredIndex;
+
+        FieldRule(FieldSchema field, int requiredIndex) {
+            this(field.getType(), field.getAllowedValues().orElse(null), field.getObjectTypeOrNull(),
+                    requiredIndex);
+        }
+
+        private FieldRule(FieldSchema.Type type, List<AllowedValue> allowedValues, FieldSchema.Type objectType,
+                int requiredIndex) {
+            this.type = type;
+            this.allowedValues = allowedValues == null ? null : new CharArraySet(allowedValues);
+            this.memberRule = objectType == null ? null : new FieldRule(objectType, allowedValues, null, -1);
+            this.requiredIndex = requiredIndex;
+        }
+
+        boolean acceptsObjects() {
+            return type == FieldSchema.Type.OBJECT || type == FieldSchema.Type.GEO_POINT;
+        }
+    }
+
+    // An open-addressing hash set of strings that can be probed with a slice of a character buffer, as exposed by
+    // JsonParser#getTextCharacters, without first creating a String.
+    private static final class CharArraySet {
+        private final char[][] table;
+
+        CharArraySet(List<AllowedValue> values) {
+            table = new char[Integer.highestOneBit(Math.max(values.size(), 1) * 4)][];
+            for (AllowedValue value : values) {
+                char[] chars = value.getName().toCharArray();
+                int slot = hash(chars, 0, chars.length) & (table.length - 1);
+                while (table[slot] != null && !matches(table[slot], chars, 0, chars.length)) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+                table[slot] = chars;
+            }
+        }
+
+        boolean contains(char[] buffer, int offset, int length) {
+            int slot = hash(buffer, offset, length) & (table.length - 1);
+            while (table[slot] != null) {
+                if (matches(table[slot], buffer, offset, length)) {
+                    return true;
+                }
+                slot = (slot + 1) & (table.length - 1);
+            }
+
+            return false;
+        }
+
+        private static int hash(char[] buffer, int offset, int length) {
+            int hash = 0;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + buffer[i];
+            }
+
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean matches(char[] candidate, char[] buffer, int offset, int length) {
+            if (candidate.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (candidate[i] != buffer[offset + i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    // Validates the textual form of IPv4 and IPv6 addresses without allocating
+    private static final class IpAddresses {
+        private IpAddresses() {}
+
+        static boolean isValid(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == ':') {
+                    return isIpv6(buffer, offset, length);
+                }
+            }
+
+            return isIpv4(buffer, offset, length);
+        }
+
+        static boolean isIpv4(char[] buffer, int offset, int length) {
+            int octets = 0;
+            int value = -1;
+            for (int i = offset; i < offset + length; i++) {
+                char c = buffer[i];
+                if (c >= '0' && c <= '9') {
+                    value = value < 0 ? c - '0' : value * 10 + (c - '0');
+                    if (value > 255) {
+                        return false;
+                    }
+                } else if (c == '.' && value >= 0) {
+                    octets++;
+                    value = -1;
+                } else {
+                    return false;
+                }
+            }
+
+            return octets == 3 && value >= 0;
+        }
+
+        static boolean isIpv6(char[] buffer, int offset, int length) {
+            int end = offset + length;
+            // Ignore a zone index, e.g., "fe80::1%eth0"
+            for (int i = offset; i < end; i++) {
+                if (buffer[i] == '%') {
+                    end = i;
+                    break;
+                }
+            }
+
+            int groups = 0;
+            int digits = 0;
+            boolean compressed = false;
+            int groupStart = offset;
+            for (int i = offset; i < end; i++) {
+                char c = buffer[i];
+                if (Character.digit(c, 16) >= 0 && c < 128) {
+                    if (++digits > 4) {
+                        return false;
+                    }
+                } else if (c == ':') {
+                    if (i + 1 < end && buffer[i + 1] == ':') {
+                        if (compressed) {
+                            return false;
+                        }
+                        compressed = true;
+                        if (digits > 0) {
+                            groups++;
+                        }
+                        i++;
+                    } else if (digits == 0) {
+                        return false;
+                    } else {
+                        groups++;
+                    }
+                    digits = 0;
+                    groupStart = i + 1;
+                } else if (c == '.') {
+                    // An embedded IPv4 address occupies the last two groups
+                    return isIpv4(buffer, groupStart, end - groupStart) && (compressed ? groups <= 5 : groups == 6);
+                } else {
+                    return false;
+                }
+            }
+
+            if (digits > 0) {
+                groups++;
+            } else if (end > offset && buffer[end - 1] == ':' && !(end - offset >= 2 && buffer[end - 2] == ':')) {
+                return false;
+            }
+
+            return compressed ? groups <= 7 : groups == 8;
+        }
+    }
+}
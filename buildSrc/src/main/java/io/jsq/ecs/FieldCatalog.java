@@ -0,0 +1,335 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.ReusabilityDeclaration;
+import io.jsq.ecs.model.Schema;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lists every concrete field path of the ECS schemata once reuse directives are applied, e.g., {@code user.name} as
+ * well as {@code client.user.name}, {@code destination.user.name}, and so on, along with the definition of each.
+ *
+ * <p>Paths are assigned dense ordinals and held in flat arrays indexed by an open-addressed hash table, so a lookup
+ * costs one hash and, on average, fewer than two probes without allocating. Lookups may be made with any {@link
+ * CharSequence} or with a range of a character array, such as the key buffer of a streaming JSON parser. Every path
+ * string is interned, so paths returned by the catalog may be compared by identity. Instances are immutable and may
+ * be shared across threads.
+ */
+final class FieldCatalog {
+    private final String[] paths;
+    private final int[] hashes;
+    private final FieldSchema[] fields;
+    private final boolean[] canonical;
+    // Each slot holds an ordinal plus one, or zero if empty. The table is at most half full.
+    private final int[] slots;
+    private final int mask;
+
+    private FieldCatalog(String[] paths, FieldSchema[] fields, boolean[] canonical) {
+        this.paths = paths;
+        this.fields = fields;
+        this.canonical = canonical;
+        hashes = new int[paths.length];
+        int capacity = Integer.highestOneBit(Math.max(paths.length, 1) * 2 - 1) << 1;
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < paths.length; i++) {
+            hashes[i] = paths[i].hashCode();
+            int slot = spread(hashes[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    static FieldCatalog compile(List<Schema> schemata) {
+        Set<String> canonicalLocations = new HashSet<>();
+        for (Schema schema : schemata) {
+            if (schema.isRoot()) {
+                canonicalLocations.add("");
+            } else if (schema.isTopLevel()) {
+                canonicalLocations.add(schema.getName());
+            }
+        }
+
+        // A path produced at more than one location keeps the position of its first occurrence and the definition
+        // of its last
+        Map<String, FieldSchema> fields = new LinkedHashMap<>();
+        Set<String> canonicalPaths = new HashSet<>();
+        expandFieldPaths(schemata).forEach((location, paths) -> paths.forEach((path, field) -> {
+            fields.put(path, field);
+            if (canonicalLocations.contains(location)) {
+                canonicalPaths.add(path);
+            } else {
+                canonicalPaths.remove(path);
+            }
+        }));
+
+        String[] paths = new String[fields.size()];
+        FieldSchema[] definitions = new FieldSchema[fields.size()];
+        boolean[] canonical = new boolean[fields.size()];
+        int ordinal = 0;
+        for (Map.Entry<String, FieldSchema> field : fields.entrySet()) {
+            paths[ordinal] = field.getKey().intern();
+            definitions[ordinal] = field.getValue();
+            canonical[ordinal] = canonicalPaths.contains(field.getKey());
+            ordinal++;
+        }
+
+        return new FieldCatalog(paths, definitions, canonical);
+    }
+
+    /**
+     * Gets the number of paths in the catalog. Ordinals range from zero to one less than this number.
+     */
+    int size() {
+        return paths.length;
+    }
+
+    /**
+     * Gets the paths in the catalog in ordinal order, i.e., in schema order with the fields of each schema followed
+     * by their reuse sites.
+     */
+    List<String> getPaths() {
+        return Collections.unmodifiableList(Arrays.asList(paths));
+    }
+
+    Optional<FieldSchema> get(CharSequence path) {
+        int ordinal = indexOf(path);
+        return ordinal < 0 ? Optional.empty() : Optional.of(fields[ordinal]);
+    }
+
+    /**
+     * @return the ordinal of the given path, or -1 if it is not in the catalog.
+     */
+    int indexOf(CharSequence path) {
+        int hash = path instanceof String ? path.hashCode() : hash(path);
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int ordinal = slots[slot] - 1;
+            if (hashes[ordinal] == hash && (paths[ordinal] == path || contentEquals(paths[ordinal], path))) {
+                return ordinal;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return the ordinal of the path held in the given range of characters, or -1 if it is not in the catalog.
+     */
+    int indexOf(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int ordinal = slots[slot] - 1;
+            if (hashes[ordinal] == hash && regionEquals(paths[ordinal], chars, offset, length)) {
+                return ordinal;
+            }
+        }
+
+        return -1;
+    }
+
+    String getPath(int ordinal) {
+        return paths[ordinal];
+    }
+
+    FieldSchema getField(int ordinal) {
+        return fields[ordinal];
+    }
+
+    /**
+     * Checks whether a path is where its schema's fields appear in their own right rather than where the schema is
+     * reused, e.g., {@code user.name} but not {@code client.user.name}.
+     */
+    boolean isCanonical(int ordinal) {
+        return canonical[ordinal];
+    }
+
+    // Matches String#hashCode so that the cached hash of a String argument can be used as is
+    private static int hash(CharSequence value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean contentEquals(String path, CharSequence value) {
+        return value instanceof String ? path.equals(value) : path.contentEquals(value);
+    }
+
+    private static boolean regionEquals(String path, char[] chars, int offset, int length) {
+        if (path.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (path.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Expands every field of every schema into the locations at which it may appear once reuse directives are
+     * applied, keyed by the dotted path of each location ("" for the root) and then by the full dotted field path.
+     */
+    private static Map<String, Map<String, FieldSchema>> expandFieldPaths(List<Schema> schemata) {
+        Map<String, Schema> byName = new LinkedHashMap<>();
+        Map<String, Set<String>> locations = new LinkedHashMap<>();
+        Map<String, Set<String>> intermediateKeys = new HashMap<>();
+        List<ReuseDirective> pending = new ArrayList<>();
+        for (Schema schema : schemata) {
+            byName.put(schema.getName(), schema);
+            Set<String> schemaLocations = locations.computeIfAbsent(schema.getName(), k -> new LinkedHashSet<>());
+            if (schema.isRoot()) {
+                schemaLocations.add("");
+            } else if (schema.isTopLevel()) {
+                schemaLocations.add(schema.getName());
+            }
+
+            Set<String> keys = intermediateKeys.computeIfAbsent(schema.getName(), k -> new HashSet<>());
+            for (FieldSchema field : schema.getFieldList()) {
+                for (int i = field.getName().indexOf('.'); i > 0; i = field.getName().indexOf('.', i + 1)) {
+                    keys.add(field.getName().substring(0, i));
+                }
+                // Schemata may also be reused beneath a field of type object, e.g., vlan under "network.inner"
+                if (field.getType() == FieldSchema.Type.OBJECT) {
+                    keys.add(field.getName());
+                }
+            }
+
+            schema.getReusable()
+                    .map(ReusabilityDeclaration::getExpected)
+                    .ifPresent(expected -> expected.forEach(path -> pending.add(new ReuseDirective(schema, path))));
+        }
+
+        // Resolve the structure to which each directive attaches its schema. A directive's path may pass through a
+        // schema that is itself reused, so directives are resolved repeatedly until no further progress is made.
+        List<Attachment> attachments = new ArrayList<>();
+        boolean progress = true;
+        while (progress && !pending.isEmpty()) {
+            progress = false;
+            for (Iterator<ReuseDirective> iterator = pending.iterator(); iterator.hasNext(); ) {
+                ReuseDirective directive = iterator.next();
+                Optional<Attachment> attachment = directive.resolve(byName, intermediateKeys, attachments);
+                if (attachment.isPresent()) {
+                    attachments.add(attachment.get());
+                    iterator.remove();
+                    progress = true;
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            ReuseDirective directive = pending.get(0);
+            throw new RuntimeException("Unable to reuse " + directive.schema.getName() + " under key "
+                    + directive.path);
+        }
+
+        // Propagate locations along attachments. Each pass extends chains of reuse by at least one link, so more
+        // passes than there are attachments indicates a cycle.
+        boolean changed = true;
+        for (int pass = 0; changed; pass++) {
+            if (pass > attachments.size()) {
+                throw new RuntimeException("Reuse directives form a cycle");
+            }
+
+            changed = false;
+            for (Attachment attachment : attachments) {
+                Set<String> targetLocations = locations.get(attachment.schema.getName());
+                for (String containerLocation : new ArrayList<>(locations.get(attachment.container.getName()))) {
+                    changed |= targetLocations.add(join(containerLocation,
+                            attachment.intermediatePrefix + attachment.schema.getName()));
+                }
+            }
+        }
+
+        Map<String, Map<String, FieldSchema>> expanded = new LinkedHashMap<>();
+        locations.forEach((name, schemaLocations) -> {
+            List<FieldSchema> fields = byName.get(name).getFieldList();
+            for (String location : schemaLocations) {
+                Map<String, FieldSchema> paths = expanded.computeIfAbsent(location, k -> new LinkedHashMap<>());
+                fields.forEach(field -> paths.put(join(location, field.getName()), field));
+            }
+        });
+
+        return expanded;
+    }
+
+    private static String join(String prefix, String suffix) {
+        return prefix.isEmpty() ? suffix : prefix + "." + suffix;
+    }
+
+    private static final class ReuseDirective {
+        private final Schema schema;
+        private final String path;
+
+        ReuseDirective(Schema schema, String path) {
+            this.schema = schema;
+            this.path = path;
+        }
+
+        // Walks the path from the schema named by its first element, descending either into an intermediate key of
+        // the current schema or into a schema already attached under the current key.
+        Optional<Attachment> resolve(
+                Map<String, Schema> byName,
+                Map<String, Set<String>> intermediateKeys,
+                List<Attachment> attachments
+        ) {
+            String[] elements = path.split("\\.");
+            Schema container = byName.get(elements[0]);
+            String prefix = "";
+            for (int i = 1; i < elements.length && container != null; i++) {
+                String key = elements[i];
+                if (intermediateKeys.get(container.getName()).contains(prefix + key)) {
+                    prefix = prefix + key + ".";
+                } else {
+                    Schema current = container;
+                    String currentPrefix = prefix;
+                    container = attachments.stream()
+                            .filter(a -> a.container == current && a.intermediatePrefix.equals(currentPrefix))
+                            .map(a -> a.schema)
+                            .filter(attached -> attached.getName().equals(key))
+                            .findFirst()
+                            .orElse(null);
+                    prefix = "";
+                }
+            }
+
+            String intermediatePrefix = prefix;
+            return Optional.ofNullable(container).map(c -> new Attachment(schema, c, intermediatePrefix));
+        }
+    }
+
+    private static final class Attachment {
+        private final Schema schema;
+        private final Schema container;
+        private final String intermediatePrefix;
+
+        Attachment(Schema schema, Schema container, String intermediatePrefix) {
+            this.schema = schema;
+            this.container = container;
+            this.intermediatePrefix = intermediatePrefix;
+        }
+    }
+}
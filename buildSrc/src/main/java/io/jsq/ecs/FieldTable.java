@@ -0,0 +1,206 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.Schema;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A columnar view of every field in a {@link FieldCatalog}, for queries over many fields at once, e.g., every keyword
+ * field with an {@code ignore_above}, or every extended field normalized to an array.
+ *
+ * <p>Rows are the catalog's ordinals. Each field's type, level, and {@code ignore_above} are held in parallel
+ * primitive arrays, and field names, which repeat wherever a schema is reused, are dictionary-encoded. Every type,
+ * level, and {@link Attribute} is also indexed as a bitmap over rows, so a query is a few bitwise operations on the
+ * bitmaps returned by {@link #ofType}, {@link #atLevel}, and {@link #with}. Bitmaps returned are copies and may be
+ * modified freely. Instances are immutable and may be shared across threads.
+ */
+final class FieldTable {
+    private static final FieldSchema.Type[] TYPES = FieldSchema.Type.values();
+    private static final FieldSchema.Level[] LEVELS = FieldSchema.Level.values();
+
+    /**
+     * A yes-or-no property of a field, as declared by its schema or, for {@link #CANONICAL}, by its catalog.
+     */
+    enum Attribute {
+        /** The field is indexed, i.e., its {@code index} is absent or true. */
+        INDEXED,
+        /** The field has doc values, i.e., its {@code doc_values} is absent or true. */
+        DOC_VALUES,
+        /** The field is normalized to an array. */
+        ARRAY,
+        /** The field is required. */
+        REQUIRED,
+        /** The field declares an {@code ignore_above}. */
+        IGNORE_ABOVE,
+        /** The field declares multi-fields. */
+        MULTI_FIELDS,
+        /** The field declares allowed values. */
+        ALLOWED_VALUES,
+        /** The path is where the field's schema appears in its own right rather than where it is reused. */
+        CANONICAL
+    }
+
+    private final FieldCatalog catalog;
+    private final byte[] types;
+    private final byte[] levels;
+    private final int[] ignoreAbove;
+    private final int[] nameIds;
+    private final String[] names;
+    private final BitSet[] typeBitmaps;
+    private final BitSet[] levelBitmaps;
+    private final BitSet[] attributeBitmaps;
+
+    private FieldTable(FieldCatalog catalog) {
+        this.catalog = catalog;
+        int size = catalog.size();
+        types = new byte[size];
+        levels = new byte[size];
+        ignoreAbove = new int[size];
+        nameIds = new int[size];
+        typeBitmaps = newBitmaps(TYPES.length, size);
+        levelBitmaps = newBitmaps(LEVELS.length, size);
+        attributeBitmaps = newBitmaps(Attribute.values().length, size);
+
+        Map<String, Integer> nameDictionary = new HashMap<>();
+        List<String> distinctNames = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            FieldSchema field = catalog.getField(i);
+            types[i] = (byte) field.getType().ordinal();
+            levels[i] = (byte) field.getLevel().ordinal();
+            ignoreAbove[i] = field.getIgnoreAbove().orElse(-1);
+            nameIds[i] = nameDictionary.computeIfAbsent(field.getName(), name -> {
+                distinctNames.add(name.intern());
+                return distinctNames.size() - 1;
+            });
+
+            typeBitmaps[types[i]].set(i);
+            levelBitmaps[levels[i]].set(i);
+            setIf(Attribute.INDEXED, i, field.isIndexed());
+            setIf(Attribute.DOC_VALUES, i, field.getDocValues().orElse(true));
+            setIf(Attribute.ARRAY, i, field.isArray());
+            setIf(Attribute.REQUIRED, i, field.isRequired());
+            setIf(Attribute.IGNORE_ABOVE, i, ignoreAbove[i] >= 0);
+            setIf(Attribute.MULTI_FIELDS, i, field.getMultiFields().isPresent());
+            setIf(Attribute.ALLOWED_VALUES, i, !field.getAllowedValueList().isEmpty());
+            setIf(Attribute.CANONICAL, i, catalog.isCanonical(i));
+        }
+        names = distinctNames.toArray(new String[0]);
+    }
+
+    static FieldTable compile(List<Schema> schemata) {
+        return compile(FieldCatalog.compile(schemata));
+    }
+
+    static FieldTable compile(FieldCatalog catalog) {
+        return new FieldTable(catalog);
+    }
+
+    FieldCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Gets the number of rows, which is the size of the catalog.
+     */
+    int size() {
+        return types.length;
+    }
+
+    FieldSchema.Type getType(int ordinal) {
+        return TYPES[types[ordinal]];
+    }
+
+    FieldSchema.Level getLevel(int ordinal) {
+        return LEVELS[levels[ordinal]];
+    }
+
+    /**
+     * @return the field's {@code ignore_above}, or -1 if it declares none.
+     */
+    int getIgnoreAbove(int ordinal) {
+        return ignoreAbove[ordinal];
+    }
+
+    /**
+     * Gets the name of the field as declared by its schema, e.g., {@code name} for {@code client.user.name}. Names are
+     * interned.
+     */
+    String getName(int ordinal) {
+        return names[nameIds[ordinal]];
+    }
+
+    boolean has(int ordinal, Attribute attribute) {
+        return attributeBitmaps[attribute.ordinal()].get(ordinal);
+    }
+
+    /**
+     * @return a bitmap with every row set.
+     */
+    BitSet all() {
+        BitSet rows = new BitSet(size());
+        rows.set(0, size());
+        return rows;
+    }
+
+    BitSet ofType(FieldSchema.Type type) {
+        return (BitSet) typeBitmaps[type.ordinal()].clone();
+    }
+
+    BitSet atLevel(FieldSchema.Level level) {
+        return (BitSet) levelBitmaps[level.ordinal()].clone();
+    }
+
+    BitSet with(Attribute attribute) {
+        return (BitSet) attributeBitmaps[attribute.ordinal()].clone();
+    }
+
+    /**
+     * @return a bitmap of the rows whose fields are declared with the given name, at any path.
+     */
+    BitSet named(String name) {
+        BitSet rows = new BitSet(size());
+        for (int id = 0; id < names.length; id++) {
+            if (names[id].equals(name)) {
+                for (int i = 0; i < nameIds.length; i++) {
+                    if (nameIds[i] == id) {
+                        rows.set(i);
+                    }
+                }
+                break;
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * @return the paths of the given rows, in ordinal order.
+     */
+    List<String> getPaths(BitSet rows) {
+        List<String> paths = new ArrayList<>(rows.cardinality());
+        for (int i = rows.nextSetBit(0); i >= 0 && i < size(); i = rows.nextSetBit(i + 1)) {
+            paths.add(catalog.getPath(i));
+        }
+
+        return paths;
+    }
+
+    private void setIf(Attribute attribute, int ordinal, boolean value) {
+        if (value) {
+            attributeBitmaps[attribute.ordinal()].set(ordinal);
+        }
+    }
+
+    private static BitSet[] newBitmaps(int count, int size) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new BitSet(size);
+        }
+
+        return bitmaps;
+    }
+}
@@ -0,0 +1,174 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.ReusabilityDeclaration;
+import io.jsq.ecs.model.Schema;
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An index of the file in which each ECS fieldset is defined and of the fieldsets beneath which it is expected to be
+ * reused, allowing a subset of the schemata to be loaded without parsing every file.
+ *
+ * <p>Like {@link SchemaSnapshot snapshots}, indexes are generated at build time and bundled next to the ECS manifest.
+ * Each index records the content hash of the YAML it was generated from; an index whose hash does not match the
+ * bundled YAML is considered stale and will not be read.
+ */
+final class FieldsetIndex {
+    private static final String VERSION = "ecs-fieldset-index/1";
+
+    // Keyed by fieldset name, in manifest order
+    private final Map<String, Entry> entries;
+
+    private FieldsetIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: FieldsetIndex <output file>");
+        }
+
+        try (OutputStream out = new FileOutputStream(args[0])) {
+            index(Loader.loadSchemataByFile()).write(Loader.contentHash(), out);
+        }
+    }
+
+    /**
+     * Indexes schemata keyed by the manifest entry of the file defining them.
+     */
+    static FieldsetIndex index(Map<String, List<Schema>> schemataByFile) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        schemataByFile.forEach((file, schemata) -> schemata.forEach(schema -> entries.put(schema.getName(),
+                new Entry(file, schema.isRoot(), schema.getReusable()
+                        .map(ReusabilityDeclaration::getExpected)
+                        .orElse(Collections.emptyList())))));
+
+        return new FieldsetIndex(entries);
+    }
+
+    void write(String contentHash, OutputStream outputStream) {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        out.print(VERSION + "\n");
+        out.print(contentHash + "\n");
+        entries.forEach((name, entry) -> out.print(String.join("\t", entry.file, name, String.valueOf(entry.root),
+                String.join(",", entry.expected)) + "\n"));
+        out.flush();
+    }
+
+    /**
+     * Reads an index, returning an empty optional if the index was written by an incompatible version of this class
+     * or from YAML whose content hash differs from the one provided.
+     */
+    static Optional<FieldsetIndex> read(InputStream inputStream, String expectedContentHash) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        if (!VERSION.equals(in.readLine()) || !expectedContentHash.equals(in.readLine())) {
+            return Optional.empty();
+        }
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            String[] columns = line.split("\t", -1);
+            if (columns.length != 4) {
+                throw new IOException("Malformed ECS fieldset index entry: " + line);
+            }
+            entries.put(columns[1], new Entry(columns[0], Boolean.parseBoolean(columns[2]), columns[3].isEmpty()
+                    ? Collections.emptyList()
+                    : Arrays.asList(columns[3].split(","))));
+        }
+
+        return Optional.of(new FieldsetIndex(entries));
+    }
+
+    /**
+     * Resolves the fieldsets needed to describe those given: the given fieldsets themselves, every root fieldset, and,
+     * transitively, every fieldset expected to be reused beneath a fieldset already needed. For example, {@code geo}
+     * is needed whenever {@code client} is, and {@code group} whenever {@code user} is.
+     *
+     * @return the names of the needed fieldsets, in manifest order.
+     */
+    Set<String> resolve(Collection<String> fieldsets) {
+        Set<String> needed = new LinkedHashSet<>();
+        for (String fieldset : fieldsets) {
+            if (!entries.containsKey(fieldset)) {
+                throw new RuntimeException("Unknown ECS fieldset: " + fieldset);
+            }
+            needed.add(fieldset);
+        }
+        entries.forEach((name, entry) -> {
+            if (entry.root) {
+                needed.add(name);
+            }
+        });
+
+        // Reuse may be nested, e.g., `group` beneath `user` beneath `client`, so iterate until nothing is added
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (!needed.contains(entry.getKey()) && entry.getValue().isReusedBeneathAny(needed)) {
+                    changed = needed.add(entry.getKey());
+                }
+            }
+        }
+
+        return entries.keySet().stream()
+                .filter(needed::contains)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * @return the manifest entries of the files defining the given fieldsets, in manifest order.
+     */
+    List<String> getFiles(Collection<String> fieldsets) {
+        Set<String> files = new LinkedHashSet<>();
+        entries.forEach((name, entry) -> {
+            if (fieldsets.contains(name)) {
+                files.add(entry.file);
+            }
+        });
+
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Gets the top-level fieldset of a dotted reuse path, e.g., {@code observer} for {@code observer.ingress}.
+     */
+    static String container(String reusePath) {
+        int dot = reusePath.indexOf('.');
+        return dot < 0 ? reusePath : reusePath.substring(0, dot);
+    }
+
+    private static final class Entry {
+        private final String file;
+        private final boolean root;
+        private final List<String> expected;
+
+        Entry(String file, boolean root, List<String> expected) {
+            this.file = file;
+            this.root = root;
+            this.expected = expected;
+        }
+
+        boolean isReusedBeneathAny(Set<String> fieldsets) {
+            return expected.stream().anyMatch(path -> fieldsets.contains(container(path)));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.SmithyModelBuilder.ConvertedSchema;
+import io.jsq.ecs.model.Schema;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.loader.Prelude;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeIndex;
+import software.amazon.smithy.model.validation.ValidatedResult;
+
+/**
+ * Caches the parsing and conversion of each ECS schema file so that regenerating a model only reparses and reconverts
+ * the files that have changed.
+ *
+ * <p>Each file is identified by the hash of its contents. The schemata parsed from it are persisted to the cache
+ * directory in the {@link SchemaSnapshot} format, and the shapes into which each schema is converted are persisted as
+ * Smithy JSON, keyed additionally by the schema's name and the builder's {@link
+ * SmithyModelBuilder#getConfigurationKey() configuration}. Both are plain files rather than objects held in memory,
+ * so they remain usable after buildSrc is recompiled, which happens whenever the bundled ECS YAML changes; the
+ * configuration covers the converter's own classes, so shapes converted by other code are never reused.
+ *
+ * <p>The shapes of unchanged schemata are restored, claiming their IDs as their conversion did so that the {@link
+ * ShapeNames} collision checks remain complete, and merged with those of the schemata converted afresh. Reuse
+ * directives are always resolved against the merged model, so the reuse sites of a changed schema are always
+ * regenerated.
+ */
+final class FragmentCache {
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String SHAPES_EXTENSION = ".json";
+    private static final String CLAIMS_METADATA_KEY = "ecsShapeClaims";
+
+    private final Path directory;
+
+    FragmentCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds every schema listed in the ECS manifest to the given builder, in manifest order, parsing only those files
+     * not already snapshotted in this cache's directory and converting only those schemata whose shapes were not
+     * cached for the builder's configuration. Cached files no longer needed are deleted.
+     *
+     * @return the schemata added, in manifest order.
+     */
+    List<Schema> addSchemata(SmithyModelBuilder builder) {
+        List<Fragment> fragments = Loader.loadManifestEntries().parallelStream()
+                .map(PhaseReport.propagate(this::load))
+                .collect(Collectors.toList());
+
+        String configurationKey = builder.getConfigurationKey();
+        List<Schema> schemata = new ArrayList<>();
+        Map<Schema, Path> shapeFiles = new IdentityHashMap<>();
+        Set<Path> retained = new HashSet<>();
+        for (Fragment fragment : fragments) {
+            retained.add(snapshotPath(fragment.contentHash));
+            for (Schema schema : fragment.schemata) {
+                Path shapeFile = directory.resolve(Loader.sha256((fragment.contentHash + "\n" + schema.getName()
+                        + "\n" + configurationKey).getBytes(StandardCharsets.UTF_8)) + SHAPES_EXTENSION);
+                schemata.add(schema);
+                shapeFiles.put(schema, shapeFile);
+                retained.add(shapeFile);
+            }
+        }
+
+        builder.addSchemata(schemata, schema -> readShapes(shapeFiles.get(schema)),
+                (schema, converted) -> writeShapes(shapeFiles.get(schema), converted));
+        prune(retained);
+
+        return schemata;
+    }
+
+    private Fragment load(String entry) {
+        byte[] contents = Loader.readEcsFile(entry);
+        String contentHash = Loader.sha256(contents);
+        List<Schema> schemata = readSnapshot(contentHash).orElseGet(() -> {
+            List<Schema> parsed = Loader.parseEcsFile(entry, contents);
+            writeSnapshot(contentHash, parsed);
+            return parsed;
+        });
+
+        return new Fragment(contentHash, schemata);
+    }
+
+    private Optional<List<Schema>> readSnapshot(String contentHash) {
+        try (InputStream in = Files.newInputStream(snapshotPath(contentHash))) {
+            return SchemaSnapshot.read(in, contentHash);
+        } catch (IOException e) {
+            // A missing, truncated, or otherwise unreadable snapshot is treated as a cache miss and overwritten
+            return Optional.empty();
+        }
+    }
+
+    private void writeSnapshot(String contentHash, List<Schema> schemata) {
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, contentHash, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                SchemaSnapshot.write(schemata, contentHash, out);
+            }
+            Files.move(temporary, snapshotPath(contentHash), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write to the ECS fragment cache in " + directory, e);
+        }
+    }
+
+    private Optional<ConvertedSchema> readShapes(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        // A file that cannot be loaded as a valid model, or that lacks the claims written last, is treated as a cache
+        // miss and overwritten
+        ValidatedResult<Model> result = Model.assembler(FragmentCache.class.getClassLoader())
+                .addImport(file)
+                .assemble();
+        Optional<ObjectNode> claims = result.getResult()
+                .filter(model -> !result.isBroken())
+                .flatMap(model -> model.getMetadataProperty(CLAIMS_METADATA_KEY))
+                .flatMap(Node::asObjectNode);
+        if (!claims.isPresent()) {
+            return Optional.empty();
+        }
+
+        ShapeIndex index = result.unwrap().getShapeIndex();
+        List<Shape> shapes = index.shapes()
+                .filter(shape -> !Prelude.isPreludeShape(shape.getId()))
+                // Structures hold their own members
+                .filter(shape -> !shape.asMemberShape()
+                        .flatMap(member -> index.getShape(member.getContainer()))
+                        .filter(Shape::isStructureShape)
+                        .isPresent())
+                .collect(Collectors.toList());
+        Map<ShapeId, String> origins = new TreeMap<>();
+        claims.get().getMembers().forEach((id, origin) -> origins.put(ShapeId.from(id.getValue()),
+                origin.expectStringNode().getValue()));
+
+        return Optional.of(new ConvertedSchema(shapes, origins));
+    }
+
+    private void writeShapes(Path file, ConvertedSchema converted) {
+        ShapeIndex.Builder index = ShapeIndex.builder();
+        converted.getShapes().forEach(shape -> {
+            index.addShape(shape);
+            shape.members().forEach(index::addShape);
+        });
+        ObjectNode.Builder claims = Node.objectNodeBuilder();
+        converted.getClaims().forEach((id, origin) -> claims.withMember(id.toString(), Node.from(origin)));
+        Model model = Model.builder()
+                .shapeIndex(index.build())
+                .putMetadataProperty(CLAIMS_METADATA_KEY, claims.build())
+                .build();
+
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            StreamingModelWriter.write(model, temporary, false);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write to the ECS fragment cache in " + directory, e);
+        }
+    }
+
+    private void prune(Set<Path> retained) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> !retained.contains(file)).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to prune the ECS fragment cache in " + directory, e);
+        }
+    }
+
+    private Path snapshotPath(String contentHash) {
+        return directory.resolve(contentHash + SNAPSHOT_EXTENSION);
+    }
+
+    private static final class Fragment {
+        private final String contentHash;
+        private final List<Schema> schemata;
+
+        Fragment(String contentHash, List<Schema> schemata) {
+            this.contentHash = contentHash;
+            this.schemata = schemata;
+        }
+    }
+}
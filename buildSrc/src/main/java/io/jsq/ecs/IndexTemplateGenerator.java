@@ -0,0 +1,290 @@
+package io.jsq.ecs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import io.jsq.ecs.model.AlternateFieldDeclaration;
+import io.jsq.ecs.model.FieldSchema;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates an Elasticsearch composable index template, or just its mappings, for every field in a {@link
+ * FieldCatalog}, including those added by reuse.
+ *
+ * <p>Each field is mapped to the Elasticsearch type of the same name, and the storage hints given by its schema
+ * ({@code index}, {@code doc_values}, {@code ignore_above}, and {@code multi_fields}) are written exactly as given,
+ * with no defaults added. Fields of type {@code object} with an {@code object_type} are mapped as objects along with a
+ * dynamic template that maps their members to that type. {@link Profile Profiles} trade completeness for index size.
+ */
+final class IndexTemplateGenerator {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /**
+     * An adjustment made to every mapping, trading fidelity to the schemata for a smaller or cheaper index.
+     */
+    enum Profile {
+        /** Omits fields at the extended level, along with any objects left empty as a result. */
+        CORE_ONLY("core-only"),
+        /** Disables norms on text fields and text multi-fields, as ECS fields are not used for relevance scoring. */
+        NO_NORMS("no-norms"),
+        /** Omits all multi-fields. */
+        NO_MULTI_FIELDS("no-multi-fields");
+
+        private final String profileName;
+
+        Profile(String profileName) {
+            this.profileName = profileName;
+        }
+
+        String getProfileName() {
+            return profileName;
+        }
+
+        static Profile fromProfileName(String profileName) {
+            for (Profile profile : values()) {
+                if (profile.profileName.equals(profileName)) {
+                    return profile;
+                }
+            }
+
+            throw new RuntimeException("Unrecognized index template profile: " + profileName);
+        }
+    }
+
+    private final MappingNode root;
+    private final List<String> indexPatterns;
+    private final Integer priority;
+    private final Set<Profile> profiles;
+
+    private IndexTemplateGenerator(Builder builder) {
+        indexPatterns = Collections.unmodifiableList(new ArrayList<>(builder.indexPatterns));
+        priority = builder.priority;
+        profiles = builder.profiles.isEmpty() ? EnumSet.noneOf(Profile.class) : EnumSet.copyOf(builder.profiles);
+
+        FieldCatalog catalog = Objects.requireNonNull(builder.catalog);
+        FieldTable table = FieldTable.compile(catalog);
+        BitSet included = table.all();
+        if (profiles.contains(Profile.CORE_ONLY)) {
+            included.andNot(table.atLevel(FieldSchema.Level.EXTENDED));
+        }
+        root = new MappingNode();
+        for (int i = included.nextSetBit(0); i >= 0; i = included.nextSetBit(i + 1)) {
+            root.createDescendant(catalog.getPath(i)).field = catalog.getField(i);
+        }
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Writes the template as UTF-8 encoded JSON followed by a line separator to the given file, creating its parent
+     * directories if necessary.
+     */
+    void write(Path file, boolean pretty) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                    JsonGenerator generator = JSON.createGenerator(writer)) {
+                if (pretty) {
+                    generator.setPrettyPrinter(new IndentingPrettyPrinter());
+                }
+                writeTemplate(generator);
+                generator.writeRaw(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write " + file, e);
+        }
+    }
+
+    void writeTemplate(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("index_patterns");
+        for (String indexPattern : indexPatterns) {
+            generator.writeString(indexPattern);
+        }
+        generator.writeEndArray();
+        if (priority != null) {
+            generator.writeNumberField("priority", priority);
+        }
+        generator.writeObjectFieldStart("template");
+        generator.writeFieldName("mappings");
+        writeMappings(generator);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    void writeMappings(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeBooleanField("date_detection", false);
+        Map<String, FieldSchema.Type> objectTypes = new TreeMap<>();
+        root.collectObjectTypes("", objectTypes);
+        if (!objectTypes.isEmpty()) {
+            generator.writeArrayFieldStart("dynamic_templates");
+            for (Map.Entry<String, FieldSchema.Type> objectType : objectTypes.entrySet()) {
+                generator.writeStartObject();
+                generator.writeObjectFieldStart(objectType.getKey());
+                generator.writeStringField("path_match", objectType.getKey() + ".*");
+                generator.writeObjectFieldStart("mapping");
+                generator.writeStringField("type", typeName(objectType.getValue()));
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeFieldName("properties");
+        writeProperties(generator, root, "");
+        generator.writeEndObject();
+    }
+
+    private void writeProperties(JsonGenerator generator, MappingNode node, String path) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, MappingNode> property : node.properties.entrySet()) {
+            generator.writeFieldName(property.getKey());
+            writeMapping(generator, property.getValue(), path.isEmpty()
+                    ? property.getKey()
+                    : path + "." + property.getKey());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeMapping(JsonGenerator generator, MappingNode node, String path) throws IOException {
+        FieldSchema field = node.field;
+        generator.writeStartObject();
+        if (field != null) {
+            if (field.getType() != FieldSchema.Type.OBJECT && !node.properties.isEmpty()) {
+                throw new RuntimeException("The field " + path + " of type " + typeName(field.getType())
+                        + " cannot also contain fields");
+            }
+
+            generator.writeStringField("type", typeName(field.getType()));
+            if (profiles.contains(Profile.NO_NORMS) && field.getType() == FieldSchema.Type.TEXT) {
+                generator.writeBooleanField("norms", false);
+            }
+            if (field.getIndex().isPresent()) {
+                generator.writeBooleanField("index", field.getIndex().get());
+            }
+            if (field.getDocValues().isPresent()) {
+                generator.writeBooleanField("doc_values", field.getDocValues().get());
+            }
+            if (field.getIgnoreAbove().isPresent()) {
+                generator.writeNumberField("ignore_above", field.getIgnoreAbove().get());
+            }
+            if (field.getMultiFields().isPresent() && !profiles.contains(Profile.NO_MULTI_FIELDS)) {
+                writeMultiFields(generator, field.getMultiFields().get());
+            }
+        }
+        if (!node.properties.isEmpty()) {
+            generator.writeFieldName("properties");
+            writeProperties(generator, node, path);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeMultiFields(JsonGenerator generator, Collection<AlternateFieldDeclaration> multiFields)
+            throws IOException {
+        generator.writeObjectFieldStart("fields");
+        for (AlternateFieldDeclaration multiField : multiFields) {
+            generator.writeObjectFieldStart(multiField.getName().orElseGet(() -> typeName(multiField.getType())));
+            generator.writeStringField("type", typeName(multiField.getType()));
+            if (profiles.contains(Profile.NO_NORMS) && multiField.getType() == FieldSchema.Type.TEXT) {
+                generator.writeBooleanField("norms", false);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static String typeName(FieldSchema.Type type) {
+        return type.toString().toLowerCase();
+    }
+
+    static final class Builder {
+        private FieldCatalog catalog;
+        private List<String> indexPatterns = Collections.emptyList();
+        private Integer priority;
+        private Set<Profile> profiles = Collections.emptySet();
+
+        private Builder() {
+        }
+
+        Builder catalog(FieldCatalog catalog) {
+            this.catalog = catalog;
+            return this;
+        }
+
+        Builder indexPatterns(List<String> indexPatterns) {
+            this.indexPatterns = indexPatterns;
+            return this;
+        }
+
+        Builder priority(Integer priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        Builder profiles(Set<Profile> profiles) {
+            this.profiles = profiles;
+            return this;
+        }
+
+        IndexTemplateGenerator build() {
+            return new IndexTemplateGenerator(this);
+        }
+    }
+
+    private static final class MappingNode {
+        private final Map<String, MappingNode> properties = new TreeMap<>();
+        private FieldSchema field;
+
+        MappingNode createDescendant(String path) {
+            MappingNode node = this;
+            for (String key : path.split("\\.")) {
+                node = node.properties.computeIfAbsent(key, k -> new MappingNode());
+            }
+
+            return node;
+        }
+
+        // Collects the object_type of each object field beneath this node, keyed by path
+        void collectObjectTypes(String path, Map<String, FieldSchema.Type> objectTypes) {
+            if (field != null && field.getObjectType().isPresent()) {
+                objectTypes.put(path, field.getObjectType().get());
+            }
+            properties.forEach((key, child) -> child.collectObjectTypes(path.isEmpty() ? key : path + "." + key,
+                    objectTypes));
+        }
+    }
+
+    // Matches the layout of JsonNodeWriter: four-space indentation and no space before the colon
+    private static final class IndentingPrettyPrinter extends DefaultPrettyPrinter {
+        private static final long serialVersionUID = 1L;
+
+        IndentingPrettyPrinter() {
+            DefaultIndenter indenter = new DefaultIndenter("    ", "\n");
+            indentObjectsWith(indenter);
+            indentArraysWith(indenter);
+        }
+
+        @Override
+        public void writeObjectFieldValueSeparator(JsonGenerator generator) throws IOException {
+            generator.writeRaw(": ");
+        }
+    }
+}
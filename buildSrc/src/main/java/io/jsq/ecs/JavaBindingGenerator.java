@@ -0,0 +1,813 @@
+package io.jsq.ecs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.traits.DocumentationTrait;
+import software.amazon.smithy.model.traits.JsonNameTrait;
+
+/**
+ * Generates Java source for a value class per structure reachable from the model's root shape, each with a builder
+ * and with streaming JSON serialization written out member by member.
+ *
+ * <p>The generated code depends only on Jackson's streaming API: no reflection, annotations, or intermediate trees
+ * are involved, member keys are pre-encoded, and values are read directly from the parser. JSON keys honor the
+ * {@code jsonName} trait. Lists are read from either an array or a single value, matching ECS's array
+ * normalization, and maps are read from any object. String, enum, and timestamp members are bound to their JSON text,
+ * so values that are not among a field's allowed values or that use another date format are preserved as is. Keys
+ * not in the model are skipped when reading.
+ *
+ * <p>A support class named {@value #SUPPORT_CLASS_NAME} holding the shared readers and writers is generated
+ * alongside the value classes.
+ */
+final class JavaBindingGenerator {
+    static final String SUPPORT_CLASS_NAME = "EcsJson";
+
+    private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+            "default", "do", "double", "else", "enum", "extends", "false", "final", "finally", "float", "for", "goto",
+            "if", "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "null",
+            "package", "private", "protected", "public", "return", "short", "static", "strictfp", "super", "switch",
+            "synchronized", "this", "throw", "throws", "transient", "true", "try", "void", "volatile", "while", "_"));
+    // Classes referenced by simple name from generated code, which no generated value class may shadow
+    private static final Set<String> RESERVED_CLASS_NAMES = new HashSet<>(Arrays.asList(
+            "ArrayList", "Boolean", "Builder", "Collections", "Double", "Float", "FunctionalInterface", "IOException",
+            "Integer", "JsonGenerator", "JsonParseException", "JsonParser", "JsonToken", "LinkedHashMap", "List",
+            "Long", "Map", "NumberFormatException", "Object", "Objects", "Override", "SerializedString", "String",
+            SUPPORT_CLASS_NAME));
+
+    private final Model model;
+    private final ShapeId rootId;
+    private final String packageName;
+
+    /**
+     * @param model the model from which to generate classes.
+     * @param rootId the ID of the structure from which all generated structures are reachable.
+     * @param packageName the package of the generated classes.
+     */
+    JavaBindingGenerator(Model model, ShapeId rootId, String packageName) {
+        this.model = model;
+        this.rootId = rootId;
+        this.packageName = packageName;
+    }
+
+    /**
+     * Generates the source of every class, keyed by simple class name.
+     */
+    Map<String, String> generate() {
+        Map<String, String> sources = new TreeMap<>();
+        sources.put(SUPPORT_CLASS_NAME, generateSupportClass());
+        for (StructureShape structure : reachableStructures()) {
+            String className = structure.getId().getName();
+            if (RESERVED_CLASS_NAMES.contains(className)) {
+                throw new RuntimeException("The structure " + structure.getId() + " conflicts with a class used by"
+                        + " the generated bindings");
+            }
+            sources.put(className, generateValueClass(structure));
+        }
+
+        return sources;
+    }
+
+    /**
+     * Writes the source of every class beneath the given source root, in the directory of the package.
+     *
+     * @return the written files, in class name order.
+     */
+    List<Path> write(Path sourceRoot) {
+        Path directory = sourceRoot.resolve(packageName.replace('.', '/'));
+        List<Path> files = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            for (Map.Entry<String, String> source : generate().entrySet()) {
+                Path file = directory.resolve(source.getKey() + ".java");
+                Files.write(file, source.getValue().getBytes(StandardCharsets.UTF_8));
+                files.add(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write Java bindings to " + directory, e);
+        }
+
+        return files;
+    }
+
+    private Set<StructureShape> reachableStructures() {
+        Set<StructureShape> structures = new TreeSet<>((a, b) -> a.getId().compareTo(b.getId()));
+        Set<ShapeId> visited = new HashSet<>();
+        Deque<ShapeId> pending = new ArrayDeque<>();
+        pending.add(rootId);
+        while (!pending.isEmpty()) {
+            Shape shape = getShape(pending.poll());
+            if (visited.add(shape.getId())) {
+                shape.asStructureShape().ifPresent(structures::add);
+                shape.members().forEach(member -> pending.add(member.getTarget()));
+            }
+        }
+
+        return structures;
+    }
+
+    private Shape getShape(ShapeId id) {
+        return model.getShapeIndex().getShape(id)
+                .orElseThrow(() -> new RuntimeException("Shape not found in model: " + id));
+    }
+
+    private Shape targetOf(MemberShape member) {
+        return getShape(member.getTarget());
+    }
+
+    private String generateValueClass(StructureShape structure) {
+        String className = structure.getId().getName();
+        List<Member> members = new ArrayList<>();
+        Set<String> keyConstants = new HashSet<>();
+        for (MemberShape member : structure.getAllMembers().values()) {
+            String constant = Member.constantName(member.getMemberName()) + "_KEY";
+            for (int i = 2; !keyConstants.add(constant); i++) {
+                constant = Member.constantName(member.getMemberName()) + "_KEY" + i;
+            }
+            members.add(new Member(member, targetOf(member), constant));
+        }
+
+        SourceWriter out = new SourceWriter(packageName);
+        out.importClass("java.io.IOException");
+        out.importClass("com.fasterxml.jackson.core.JsonGenerator");
+        out.importClass("com.fasterxml.jackson.core.JsonParser");
+        out.importClass("com.fasterxml.jackson.core.JsonToken");
+        out.importClass("java.util.Objects");
+        if (!members.isEmpty()) {
+            out.importClass("com.fasterxml.jackson.core.io.SerializedString");
+        }
+
+        out.javadoc(structure.getTrait(DocumentationTrait.class).map(DocumentationTrait::getValue).orElse(null));
+        out.open("public final class " + className + " {");
+        for (Member member : members) {
+            out.line("private static final SerializedString " + member.keyConstant + " = new SerializedString("
+                    + javaString(member.jsonName) + ");");
+        }
+        out.blankIfAny(members);
+        for (Member member : members) {
+            out.line("private final " + javaType(member.target, out) + " " + member.field + ";");
+        }
+        out.blankIfAny(members);
+
+        out.open("private " + className + "(Builder builder) {");
+        members.forEach(member -> out.line(member.field + " = builder." + member.field + ";"));
+        out.close("}");
+        out.blank();
+        out.open("public static Builder builder() {");
+        out.line("return new Builder();");
+        out.close("}");
+
+        for (Member member : members) {
+            out.blank();
+            out.javadoc(member.documentation);
+            out.open("public " + javaType(member.target, out) + " " + member.getter + "() {");
+            out.line("return " + member.field + ";");
+            out.close("}");
+        }
+
+        out.blank();
+        out.comment("Writes this value as a JSON object, omitting absent members.");
+        out.open("public void writeTo(JsonGenerator generator) throws IOException {");
+        out.line("generator.writeStartObject();");
+        for (Member member : members) {
+            out.open("if (" + member.field + " != null) {");
+            out.line("generator.writeFieldName(" + member.keyConstant + ");");
+            out.line(writeStatement(member.target, "generator", member.field));
+            out.close("}");
+        }
+        out.line("generator.writeEndObject();");
+        out.close("}");
+
+        out.blank();
+        out.comment("Reads a value from the JSON object on which the parser is positioned, or from the next JSON",
+                "value if the parser is between values. The parser is left on the object's closing brace.",
+                "",
+                "@return the value read, or null if the JSON value is null.");
+        out.open("public static " + className + " readFrom(JsonParser parser) throws IOException {");
+        out.line("JsonToken token = " + SUPPORT_CLASS_NAME + ".currentOrNextToken(parser);");
+        out.open("if (token == JsonToken.VALUE_NULL) {");
+        out.line("return null;");
+        out.close("}");
+        out.line(SUPPORT_CLASS_NAME + ".expect(parser, JsonToken.START_OBJECT);");
+        out.blank();
+        out.line("Builder builder = new Builder();");
+        out.open("while (parser.nextToken() == JsonToken.FIELD_NAME) {");
+        if (members.isEmpty()) {
+            out.line("parser.nextToken();");
+            out.line("parser.skipChildren();");
+        } else {
+            out.line("String key = parser.getCurrentName();");
+            out.line("parser.nextToken();");
+            out.open("switch (key) {");
+            for (Member member : members) {
+                out.indent("case " + javaString(member.jsonName) + ":");
+                out.line("builder." + member.field + " = " + readExpression(member.target, "parser", 0) + ";");
+                out.line("break;");
+                out.outdent();
+            }
+            out.indent("default:");
+            out.line("parser.skipChildren();");
+            out.outdent();
+            out.close("}");
+        }
+        out.close("}");
+        out.blank();
+        out.line("return builder.build();");
+        out.close("}");
+
+        out.blank();
+        out.line("@Override");
+        out.open("public boolean equals(Object other) {");
+        out.open("if (this == other) {");
+        out.line("return true;");
+        out.close("}");
+        if (members.isEmpty()) {
+            out.line("return other instanceof " + className + ";");
+        } else {
+            out.open("if (!(other instanceof " + className + ")) {");
+            out.line("return false;");
+            out.close("}");
+            out.blank();
+            out.line(className + " that = (" + className + ") other;");
+            for (int i = 0; i < members.size(); i++) {
+                String field = members.get(i).field;
+                String comparison = "Objects.equals(" + field + ", that." + field + ")";
+                String terminator = i == members.size() - 1 ? ";" : "";
+                if (i == 0) {
+                    out.line("return " + comparison + terminator);
+                } else {
+                    out.line("        && " + comparison + terminator);
+                }
+            }
+        }
+        out.close("}");
+        out.blank();
+        out.line("@Override");
+        out.open("public int hashCode() {");
+        StringBuilder fields = new StringBuilder();
+        members.forEach(member -> fields.append(fields.length() == 0 ? "" : ", ").append(member.field));
+        if (fields.length() <= 80) {
+            out.line("return Objects.hash(" + fields + ");");
+        } else {
+            out.line("return Objects.hash(");
+            for (int i = 0; i < members.size(); i++) {
+                out.line("        " + members.get(i).field + (i == members.size() - 1 ? ");" : ","));
+            }
+        }
+        out.close("}");
+
+        out.blank();
+        out.open("public static final class Builder {");
+        for (Member member : members) {
+            out.line("private " + javaType(member.target, out) + " " + member.field + ";");
+        }
+        out.blankIfAny(members);
+        out.open("private Builder() {");
+        out.close("}");
+        for (Member member : members) {
+            String type = javaType(member.target, out);
+            out.blank();
+            out.open("public Builder " + member.field + "(" + type + " " + member.field + ") {");
+            out.line("this." + member.field + " = " + copyExpression(member.target, member.field, out) + ";");
+            out.line("return this;");
+            out.close("}");
+        }
+        out.blank();
+        out.open("public " + className + " build() {");
+        out.line("return new " + className + "(this);");
+        out.close("}");
+        out.close("}");
+        out.close("}");
+
+        return out.toString();
+    }
+
+    private String javaType(Shape shape, SourceWriter out) {
+        switch (shape.getType()) {
+            case STRING:
+            case TIMESTAMP:
+                return "String";
+            case BOOLEAN:
+                return "Boolean";
+            case INTEGER:
+                return "Integer";
+            case LONG:
+                return "Long";
+            case FLOAT:
+                return "Float";
+            case DOUBLE:
+                return "Double";
+            case LIST:
+                out.importClass("java.util.List");
+                return "List<" + javaType(targetOf(shape.asListShape().get().getMember()), out) + ">";
+            case MAP:
+                out.importClass("java.util.Map");
+                return "Map<String, " + javaType(targetOf(shape.asMapShape().get().getValue()), out) + ">";
+            case STRUCTURE:
+                return shape.getId().getName();
+            default:
+                throw new RuntimeException("Unable to generate a Java binding for " + shape.getId() + " of type "
+                        + shape.getType());
+        }
+    }
+
+    // Collections passed to builders are copied so that generated values remain immutable
+    private String copyExpression(Shape shape, String value, SourceWriter out) {
+        switch (shape.getType()) {
+            case LIST:
+                out.importClass("java.util.ArrayList");
+                out.importClass("java.util.Collections");
+                return value + " == null ? null : Collections.unmodifiableList(new ArrayList<>(" + value + "))";
+            case MAP:
+                out.importClass("java.util.Collections");
+                out.importClass("java.util.LinkedHashMap");
+                return value + " == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(" + value + "))";
+            default:
+                return value;
+        }
+    }
+
+    private String writeStatement(Shape shape, String generator, String value) {
+        switch (shape.getType()) {
+            case STRING:
+            case TIMESTAMP:
+                return generator + ".writeString(" + value + ");";
+            case BOOLEAN:
+                return generator + ".writeBoolean(" + value + ");";
+            case STRUCTURE:
+                return value + ".writeTo(" + generator + ");";
+            case LIST:
+            case MAP:
+                return writeContainer(shape, generator, value, 0) + ";";
+            default:
+                return generator + ".writeNumber(" + value + ");";
+        }
+    }
+
+    private String writeContainer(Shape shape, String generator, String value, int depth) {
+        return shape.isListShape()
+                ? SUPPORT_CLASS_NAME + ".writeList(" + generator + ", " + value + ", "
+                        + writerFunction(targetOf(shape.asListShape().get().getMember()), depth) + ")"
+                : SUPPORT_CLASS_NAME + ".writeMap(" + generator + ", " + value + ", "
+                        + writerFunction(targetOf(shape.asMapShape().get().getValue()), depth) + ")";
+    }
+
+    // Lambda parameters are numbered by depth as they may not shadow those of an enclosing lambda
+    private String writerFunction(Shape shape, int depth) {
+        switch (shape.getType()) {
+            case STRING:
+            case TIMESTAMP:
+                return "JsonGenerator::writeString";
+            case BOOLEAN:
+                return "JsonGenerator::writeBoolean";
+            case STRUCTURE:
+                return "(g" + depth + ", v" + depth + ") -> v" + depth + ".writeTo(g" + depth + ")";
+            case LIST:
+            case MAP:
+                return "(g" + depth + ", v" + depth + ") -> "
+                        + writeContainer(shape, "g" + depth, "v" + depth, depth + 1);
+            default:
+                return "JsonGenerator::writeNumber";
+        }
+    }
+
+    private String readExpression(Shape shape, String parser, int depth) {
+        switch (shape.getType()) {
+            case LIST:
+                return SUPPORT_CLASS_NAME + ".readList(" + parser + ", "
+                        + readerFunction(targetOf(shape.asListShape().get().getMember()), depth) + ")";
+            case MAP:
+                return SUPPORT_CLASS_NAME + ".readMap(" + parser + ", "
+                        + readerFunction(targetOf(shape.asMapShape().get().getValue()), depth) + ")";
+            case STRUCTURE:
+                return shape.getId().getName() + ".readFrom(" + parser + ")";
+            default:
+                return SUPPORT_CLASS_NAME + "." + scalarReader(shape) + "(" + parser + ")";
+        }
+    }
+
+    private String readerFunction(Shape shape, int depth) {
+        switch (shape.getType()) {
+            case LIST:
+            case MAP:
+                return "p" + depth + " -> " + readExpression(shape, "p" + depth, depth + 1);
+            case STRUCTURE:
+                return shape.getId().getName() + "::readFrom";
+            default:
+                return SUPPORT_CLASS_NAME + "::" + scalarReader(shape);
+        }
+    }
+
+    private static String scalarReader(Shape shape) {
+        switch (shape.getType()) {
+            case STRING:
+            case TIMESTAMP:
+                return "readString";
+            case BOOLEAN:
+                return "readBoolean";
+            case INTEGER:
+                return "readInteger";
+            case LONG:
+                return "readLong";
+            case FLOAT:
+                return "readFloat";
+            case DOUBLE:
+                return "readDouble";
+            default:
+                throw new RuntimeException("Unable to generate a Java binding for " + shape.getId() + " of type "
+                        + shape.getType());
+        }
+    }
+
+    private String generateSupportClass() {
+        SourceWriter out = new SourceWriter(packageName);
+        out.importClass("com.fasterxml.jackson.core.JsonGenerator");
+        out.importClass("com.fasterxml.jackson.core.JsonParseException");
+        out.importClass("com.fasterxml.jackson.core.JsonParser");
+        out.importClass("com.fasterxml.jackson.core.JsonToken");
+        out.importClass("java.io.IOException");
+        out.importClass("java.util.ArrayList");
+        out.importClass("java.util.Collections");
+        out.importClass("java.util.LinkedHashMap");
+        out.importClass("java.util.List");
+        out.importClass("java.util.Map");
+        out.raw(SUPPORT_CLASS_SOURCE.replace("$SUPPORT", SUPPORT_CLASS_NAME));
+
+        return out.toString();
+    }
+
+    private static String javaString(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+
+    private static final class Member {
+        private final Shape target;
+        private final String jsonName;
+        private final String field;
+        private final String getter;
+        private final String keyConstant;
+        private final String documentation;
+
+        Member(MemberShape member, Shape target, String keyConstant) {
+            this.target = target;
+            this.keyConstant = keyConstant;
+            String name = member.getMemberName();
+            jsonName = member.getTrait(JsonNameTrait.class).map(JsonNameTrait::getValue).orElse(name);
+            field = RESERVED_WORDS.contains(name) ? name + "_" : name;
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            // Object#getClass is final, so a member named "class" needs another accessor name
+            getter = capitalized.equals("Class") ? "getClassValue" : "get" + capitalized;
+            documentation = member.getTrait(DocumentationTrait.class).map(DocumentationTrait::getValue).orElse(null);
+        }
+
+        private static String constantName(String name) {
+            StringBuilder constant = new StringBuilder();
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(name.charAt(i - 1))) {
+                    constant.append('_');
+                }
+                constant.append(Character.toUpperCase(c));
+            }
+
+            return constant.toString();
+        }
+    }
+
+    /**
+     * Accumulates the source of a single compilation unit, collecting its imports as they are used.
+     */
+    private static final class SourceWriter {
+        private static final String INDENT = "    ";
+
+        private final String packageName;
+        private final Set<String> imports = new TreeSet<>();
+        private final StringBuilder body = new StringBuilder();
+        private int depth;
+
+        SourceWriter(String packageName) {
+            this.packageName = packageName;
+        }
+
+        void importClass(String qualifiedName) {
+            imports.add(qualifiedName);
+        }
+
+        void line(String line) {
+            for (int i = 0; i < depth; i++) {
+                body.append(INDENT);
+            }
+            body.append(line).append('\n');
+        }
+
+        void blank() {
+            body.append('\n');
+        }
+
+        void blankIfAny(List<?> elements) {
+            if (!elements.isEmpty()) {
+                blank();
+            }
+        }
+
+        void open(String line) {
+            indent(line);
+        }
+
+        void close(String line) {
+            outdent();
+            line(line);
+        }
+
+        void indent(String line) {
+            line(line);
+            depth++;
+        }
+
+        void outdent() {
+            depth--;
+        }
+
+        void raw(String source) {
+            body.append(source);
+        }
+
+        /**
+         * Writes a doc comment containing the given model documentation, if any, escaped so that it is shown as is.
+         */
+        void javadoc(String documentation) {
+            if (documentation != null && !documentation.trim().isEmpty()) {
+                comment(escapeJavadoc(documentation.trim()).split("\n", -1));
+            }
+        }
+
+        void comment(String... lines) {
+            line("/**");
+            for (String line : lines) {
+                line(line.trim().isEmpty() ? " *" : " * " + line.trim());
+            }
+            line(" */");
+        }
+
+        // Markup and unicode escapes in ECS descriptions must not be interpreted by javac or javadoc
+        private static String escapeJavadoc(String documentation) {
+            return documentation
+                    .replace("&", "&amp;")
+                    .replace("<", "&lt;")
+                    .replace(">", "&gt;")
+                    .replace("@", "&#64;")
+                    .replace("*/", "*&#47;")
+                    .replace("\\", "&#92;");
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder source = new StringBuilder("package ").append(packageName).append(";\n\n");
+            imports.forEach(qualifiedName -> source.append("import ").append(qualifiedName).append(";\n"));
+            if (!imports.isEmpty()) {
+                source.append('\n');
+            }
+
+            return source.append(body).toString();
+        }
+    }
+
+    private static final String SUPPORT_CLASS_SOURCE = String.join("\n",
+            "/**",
+            " * Reads and writes the JSON values of the generated ECS bindings.",
+            " *",
+            " * <p>Scalars are coerced as Elasticsearch would coerce them, e.g., a number may be given as a",
+            " * string, and null is read as an absent value.",
+            " */",
+            "public final class $SUPPORT {",
+            "    private $SUPPORT() {",
+            "    }",
+            "",
+            "    @FunctionalInterface",
+            "    public interface ValueReader<T> {",
+            "        T read(JsonParser parser) throws IOException;",
+            "    }",
+            "",
+            "    @FunctionalInterface",
+            "    public interface ValueWriter<T> {",
+            "        void write(JsonGenerator generator, T value) throws IOException;",
+            "    }",
+            "",
+            "    public static String readString(JsonParser parser) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == JsonToken.VALUE_NULL) {",
+            "            return null;",
+            "        }",
+            "        if (token == null || !token.isScalarValue()) {",
+            "            throw mismatch(parser, \"a string\");",
+            "        }",
+            "",
+            "        return parser.getText();",
+            "    }",
+            "",
+            "    public static Boolean readBoolean(JsonParser parser) throws IOException {",
+            "        switch (parser.getCurrentToken()) {",
+            "            case VALUE_NULL:",
+            "                return null;",
+            "            case VALUE_TRUE:",
+            "                return Boolean.TRUE;",
+            "            case VALUE_FALSE:",
+            "                return Boolean.FALSE;",
+            "            case VALUE_STRING:",
+            "                if (parser.getText().equals(\"true\") || parser.getText().equals(\"false\")) {",
+            "                    return Boolean.valueOf(parser.getText());",
+            "                }",
+            "                break;",
+            "            default:",
+            "                break;",
+            "        }",
+            "",
+            "        throw mismatch(parser, \"a boolean\");",
+            "    }",
+            "",
+            "    public static Integer readInteger(JsonParser parser) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {",
+            "            return parser.getIntValue();",
+            "        }",
+            "",
+            "        String text = coercibleText(parser, \"an integer\");",
+            "        try {",
+            "            return text == null ? null : Integer.valueOf(text);",
+            "        } catch (NumberFormatException e) {",
+            "            throw mismatch(parser, \"an integer\");",
+            "        }",
+            "    }",
+            "",
+            "    public static Long readLong(JsonParser parser) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == JsonToken.VALUE_NUMBER_INT",
+            "                && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {",
+            "            return parser.getLongValue();",
+            "        }",
+            "",
+            "        String text = coercibleText(parser, \"a long\");",
+            "        try {",
+            "            return text == null ? null : Long.valueOf(text);",
+            "        } catch (NumberFormatException e) {",
+            "            throw mismatch(parser, \"a long\");",
+            "        }",
+            "    }",
+            "",
+            "    public static Float readFloat(JsonParser parser) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {",
+            "            return parser.getFloatValue();",
+            "        }",
+            "",
+            "        String text = coercibleText(parser, \"a float\");",
+            "        try {",
+            "            return text == null ? null : Float.valueOf(text);",
+            "        } catch (NumberFormatException e) {",
+            "            throw mismatch(parser, \"a float\");",
+            "        }",
+            "    }",
+            "",
+            "    public static Double readDouble(JsonParser parser) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {",
+            "            return parser.getDoubleValue();",
+            "        }",
+            "",
+            "        String text = coercibleText(parser, \"a double\");",
+            "        try {",
+            "            return text == null ? null : Double.valueOf(text);",
+            "        } catch (NumberFormatException e) {",
+            "            throw mismatch(parser, \"a double\");",
+            "        }",
+            "    }",
+            "",
+            "    /**",
+            "     * Reads either a JSON array or a single value, which is read as a list of one element.",
+            "     */",
+            "    public static <T> List<T> readList(JsonParser parser, ValueReader<T> reader) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == JsonToken.VALUE_NULL) {",
+            "            return null;",
+            "        }",
+            "        if (token != JsonToken.START_ARRAY) {",
+            "            return Collections.singletonList(reader.read(parser));",
+            "        }",
+            "",
+            "        List<T> list = new ArrayList<>();",
+            "        while (parser.nextToken() != JsonToken.END_ARRAY) {",
+            "            list.add(reader.read(parser));",
+            "        }",
+            "",
+            "        return Collections.unmodifiableList(list);",
+            "    }",
+            "",
+            "    public static <T> Map<String, T> readMap(JsonParser parser, ValueReader<T> reader)",
+            "            throws IOException {",
+            "        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {",
+            "            return null;",
+            "        }",
+            "        expect(parser, JsonToken.START_OBJECT);",
+            "",
+            "        Map<String, T> map = new LinkedHashMap<>();",
+            "        while (parser.nextToken() == JsonToken.FIELD_NAME) {",
+            "            String key = parser.getCurrentName();",
+            "            parser.nextToken();",
+            "            map.put(key, reader.read(parser));",
+            "        }",
+            "",
+            "        return Collections.unmodifiableMap(map);",
+            "    }",
+            "",
+            "    public static <T> void writeList(JsonGenerator generator, List<T> list, ValueWriter<T> writer)",
+            "            throws IOException {",
+            "        generator.writeStartArray();",
+            "        for (T value : list) {",
+            "            if (value == null) {",
+            "                generator.writeNull();",
+            "            } else {",
+            "                writer.write(generator, value);",
+            "            }",
+            "        }",
+            "        generator.writeEndArray();",
+            "    }",
+            "",
+            "    public static <T> void writeMap(JsonGenerator generator, Map<String, T> map, ValueWriter<T> writer)",
+            "            throws IOException {",
+            "        generator.writeStartObject();",
+            "        for (Map.Entry<String, T> entry : map.entrySet()) {",
+            "            generator.writeFieldName(entry.getKey());",
+            "            if (entry.getValue() == null) {",
+            "                generator.writeNull();",
+            "            } else {",
+            "                writer.write(generator, entry.getValue());",
+            "            }",
+            "        }",
+            "        generator.writeEndObject();",
+            "    }",
+            "",
+            "    // Moves past the end of a previously read value so that a stream of values can be read in turn",
+            "    static JsonToken currentOrNextToken(JsonParser parser) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == null || token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {",
+            "            token = parser.nextToken();",
+            "        }",
+            "",
+            "        return token;",
+            "    }",
+            "",
+            "    static void expect(JsonParser parser, JsonToken expected) throws IOException {",
+            "        if (parser.getCurrentToken() != expected) {",
+            "            throw new JsonParseException(parser, \"Expected \" + expected + \" but found \"",
+            "                    + parser.getCurrentToken());",
+            "        }",
+            "    }",
+            "",
+            "    private static String coercibleText(JsonParser parser, String expected) throws IOException {",
+            "        JsonToken token = parser.getCurrentToken();",
+            "        if (token == JsonToken.VALUE_NULL) {",
+            "            return null;",
+            "        }",
+            "        if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT",
+            "                && token != JsonToken.VALUE_NUMBER_FLOAT) {",
+            "            throw mismatch(parser, expected);",
+            "        }",
+            "",
+            "        return parser.getText().trim();",
+            "    }",
+            "",
+            "    private static JsonParseException mismatch(JsonParser parser, String expected) {",
+            "        return new JsonParseException(parser, \"Expected \" + expected + \" but found \"",
+            "                + parser.getCurrentToken());",
+            "    }",
+            "}",
+            "");
+}
@@ -0,0 +1,229 @@
+package io.jsq.ecs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.BooleanNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.NodeVisitor;
+import software.amazon.smithy.model.node.NullNode;
+import software.amazon.smithy.model.node.NumberNode;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.StringNode;
+
+/**
+ * Writes a {@link Node} as JSON directly to a {@link Writer}.
+ *
+ * <p>Unlike {@link Node#prettyPrintJson}, no string containing the whole document is created, so the memory needed
+ * to write a model does not grow with the size of its JSON representation.
+ */
+final class JsonNodeWriter implements NodeVisitor<Void> {
+    private static final String INDENT = "    ";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+    private final boolean pretty;
+    private int depth;
+
+    private JsonNodeWriter(Writer writer, boolean pretty) {
+        this.writer = writer;
+        this.pretty = pretty;
+    }
+
+    /**
+     * Writes a node to the given writer, indenting nested values by four spaces if {@code pretty} is set or with no
+     * insignificant whitespace otherwise. The writer is neither flushed nor closed.
+     */
+    static void write(Node node, Writer writer, boolean pretty) throws IOException {
+        write(node, writer, pretty, 0);
+    }
+
+    /**
+     * Writes a node nested at the given depth within an enclosing document, so that its lines are indented to match.
+     */
+    static void write(Node node, Writer writer, boolean pretty, int depth) throws IOException {
+        JsonNodeWriter nodeWriter = new JsonNodeWriter(writer, pretty);
+        nodeWriter.depth = depth;
+        try {
+            node.accept(nodeWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a node as UTF-8 encoded JSON followed by a line separator to the given file, creating its parent
+     * directories if necessary.
+     */
+    static void write(Node node, Path file, boolean pretty) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                write(node, writer, pretty);
+                writer.write(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write " + file, e);
+        }
+    }
+
+    @Override
+    public Void arrayNode(ArrayNode node) {
+        List<Node> elements = node.getElements();
+        if (elements.isEmpty()) {
+            return append("[]");
+        }
+
+        append('[');
+        depth++;
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                append(',');
+            }
+            newLine();
+            elements.get(i).accept(this);
+        }
+        depth--;
+        newLine();
+
+        return append(']');
+    }
+
+    @Override
+    public Void booleanNode(BooleanNode node) {
+        return append(String.valueOf(node.getValue()));
+    }
+
+    @Override
+    public Void nullNode(NullNode node) {
+        return append("null");
+    }
+
+    @Override
+    public Void numberNode(NumberNode node) {
+        return append(node.getValue().toString());
+    }
+
+    @Override
+    public Void objectNode(ObjectNode node) {
+        Map<StringNode, Node> members = node.getMembers();
+        if (members.isEmpty()) {
+            return append("{}");
+        }
+
+        append('{');
+        depth++;
+        Iterator<Map.Entry<StringNode, Node>> entries = members.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<StringNode, Node> entry = entries.next();
+            newLine();
+            writeString(entry.getKey().getValue());
+            append(pretty ? ": " : ":");
+            entry.getValue().accept(this);
+            if (entries.hasNext()) {
+                append(',');
+            }
+        }
+        depth--;
+        newLine();
+
+        return append('}');
+    }
+
+    @Override
+    public Void stringNode(StringNode node) {
+        writeString(node.getValue());
+        return null;
+    }
+
+    private void writeString(String value) {
+        append('"');
+        int unescapedFrom = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                write(value, unescapedFrom, i);
+                unescapedFrom = i + 1;
+                writeEscaped(c);
+            }
+        }
+        write(value, unescapedFrom, value.length());
+        append('"');
+    }
+
+    private void writeEscaped(char c) {
+        switch (c) {
+            case '"':
+                append("\\\"");
+                break;
+            case '\\':
+                append("\\\\");
+                break;
+            case '\b':
+                append("\\b");
+                break;
+            case '\f':
+                append("\\f");
+                break;
+            case '\n':
+                append("\\n");
+                break;
+            case '\r':
+                append("\\r");
+                break;
+            case '\t':
+                append("\\t");
+                break;
+            default:
+                append("\\u00");
+                append(HEX_DIGITS[c >> 4]);
+                append(HEX_DIGITS[c & 0xF]);
+        }
+    }
+
+    private void newLine() {
+        if (pretty) {
+            append('\n');
+            for (int i = 0; i < depth; i++) {
+                append(INDENT);
+            }
+        }
+    }
+
+    private void write(String value, int start, int end) {
+        if (end > start) {
+            try {
+                writer.write(value, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Void append(CharSequence value) {
+        try {
+            writer.append(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return null;
+    }
+
+    private Void append(char value) {
+        try {
+            writer.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return null;
+    }
+}
@@ -1,51 +1,309 @@
 package io.jsq.ecs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.jsq.ecs.model.ReusabilityDeclaration;
 import io.jsq.ecs.model.Schema;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import software.amazon.smithy.utils.IoUtils;
 
 final class Loader {
     private static final String PATH_PREFIX = "META-INF/elastic-common-schema";
     private static final String MANIFEST_PATH = "manifest";
+    private static final String SNAPSHOT_PATH = "schemata.snapshot";
+    private static final String FIELDSET_INDEX_PATH = "fieldsets.index";
+    private static final String CONTENT_HASH_PATH = "schemata.sha256";
+
+    private static final EcsFileParser PARSER = new EcsFileParser(new ObjectMapper(new YAMLFactory()));
+
+    /**
+     * Writes the {@link #contentHash() content hash} of the schemata bundled on the classpath to the path given as the
+     * sole argument.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: Loader <output file>");
+        }
+
+        Files.write(Paths.get(args[0]), (contentHash() + "\n").getBytes(StandardCharsets.UTF_8));
+    }
 
     static List<Schema> loadSchemata() {
-        EcsFileParser parser = new EcsFileParser(new ObjectMapper(new YAMLFactory()));
+        return loadManifestEntries().stream()
+                .map(PARSER::parseEcsFile)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
 
-        return Arrays.stream(loadSchemaManifest().trim().split(System.lineSeparator()))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .map(Loader::ecsResource)
-                .map(parser::parseEcsFile)
+    /**
+     * Loads all schemata listed in the manifest, parsing each file on the common fork-join pool. The returned list is
+     * in the same order as {@link #loadSchemata()}.
+     */
+    static List<Schema> loadSchemataConcurrently() {
+        return loadManifestEntries().parallelStream()
+                .map(PhaseReport.propagate(PARSER::parseEcsFile))
                 .flatMap(List::stream)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads all schemata from the binary snapshot bundled next to the manifest, falling back to parsing the YAML
+     * files if the snapshot is missing or was generated from different YAML.
+     *
+     * @see SchemaSnapshot
+     */
+    static List<Schema> loadPrecompiledSchemata() {
+        InputStream snapshot = Loader.class.getResourceAsStream("/" + PATH_PREFIX + "/" + SNAPSHOT_PATH);
+        if (snapshot != null) {
+            try (InputStream in = snapshot) {
+                Optional<List<Schema>> schemata = SchemaSnapshot.read(in, bundledContentHash());
+                if (schemata.isPresent()) {
+                    return schemata.get();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read ECS schema snapshot", e);
+            }
+        }
+
+        return loadSchemataConcurrently();
+    }
+
+    /**
+     * Loads only the schemata needed to describe the given fieldsets, in manifest order. Besides the given fieldsets,
+     * these are the root fieldset and every fieldset reused beneath a needed one, as {@link FieldsetIndex#resolve
+     * resolved} by the index bundled next to the manifest. Only the files defining the needed fieldsets are parsed
+     * unless the index is missing or was generated from different YAML.
+     *
+     * <p>Reuse beneath fieldsets that were not loaded is dropped from each schema's {@code reusable.expected}, so the
+     * result describes a self-consistent subset of ECS that may be given to {@link SmithyModelBuilder} as is.
+     */
+    static List<Schema> loadSchemata(Collection<String> fieldsets) {
+        Optional<FieldsetIndex> index = loadFieldsetIndex();
+        if (index.isPresent()) {
+            Set<String> needed = index.get().resolve(fieldsets);
+            return select(index.get().getFiles(needed).parallelStream()
+                    .map(PhaseReport.propagate(PARSER::parseEcsFile)), needed);
+        }
+
+        // Without a current index, every file must be parsed to discover which fieldsets are needed
+        Map<String, List<Schema>> schemataByFile = loadSchemataByFile();
+        return select(schemataByFile.values().stream(), FieldsetIndex.index(schemataByFile).resolve(fieldsets));
+    }
+
+    /**
+     * Loads all schemata as {@link #loadPrecompiledSchemata()} does, then {@link SchemaCompactor compacts} them without
+     * their documentation, for processes that keep the schemata resident.
+     */
+    static List<Schema> loadLeanSchemata() {
+        return SchemaCompactor.compact(loadPrecompiledSchemata(), false);
+    }
+
+    /**
+     * Loads a single fieldset, including its documentation. Only the file defining it is parsed unless the fieldset
+     * index bundled next to the manifest is missing or stale.
+     */
+    static Schema loadSchema(String fieldset) {
+        List<String> files = loadFieldsetIndex()
+                .map(index -> index.getFiles(Collections.singleton(fieldset)))
+                .orElseGet(Loader::loadManifestEntries);
+
+        return files.stream()
+                .map(PARSER::parseEcsFile)
+                .flatMap(List::stream)
+                .filter(schema -> schema.getName().equals(fieldset))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unknown ECS fieldset: " + fieldset));
+    }
+
+    /**
+     * Loads all schemata listed in the manifest, keyed by the manifest entry of the file defining them.
+     */
+    static Map<String, List<Schema>> loadSchemataByFile() {
+        Map<String, List<Schema>> schemataByFile = new LinkedHashMap<>();
+        loadManifestEntries().forEach(entry -> schemataByFile.put(entry, PARSER.parseEcsFile(entry)));
+
+        return schemataByFile;
+    }
+
+    static List<String> loadManifestEntries() {
+        try (Phase phase = Phase.start("read-manifest", MANIFEST_PATH)) {
+            List<String> entries = Arrays.stream(loadSchemaManifest().trim().split(System.lineSeparator()))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.toList());
+            phase.count(Phase.Counter.FILES, entries.size());
+
+            return entries;
+        }
+    }
+
+    /**
+     * Computes a SHA-256 digest of the manifest and of every schema file it lists, keyed by path relative to the ECS
+     * resource directory.
+     */
+    static Map<String, String> fingerprintSchemata() {
+        Map<String, String> fingerprints = new TreeMap<>();
+        fingerprints.put(MANIFEST_PATH, sha256(ecsResourceBytes(MANIFEST_PATH)));
+        loadManifestEntries().forEach(entry -> fingerprints.put(entry, sha256(ecsResourceBytes(entry))));
+
+        return fingerprints;
+    }
+
+    /**
+     * Computes a single SHA-256 digest covering the manifest and every schema file it lists.
+     */
+    static String contentHash() {
+        return sha256(fingerprintSchemata().toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the content hash recorded next to the manifest when the schemata were bundled, or computes it if none was
+     * recorded. Reading the recorded hash spares hashing every schema file just to check that a snapshot or index is
+     * current.
+     */
+    static String bundledContentHash() {
+        InputStream stored = Loader.class.getResourceAsStream("/" + PATH_PREFIX + "/" + CONTENT_HASH_PATH);
+        if (stored == null) {
+            return contentHash();
+        }
+
+        try (InputStream in = stored) {
+            return IoUtils.toUtf8String(in).trim();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read ECS content hash", e);
+        }
+    }
+
+    /**
+     * Reads the contents of a file in the ECS resource directory.
+     */
+    static byte[] readEcsFile(String relativePath) {
+        return ecsResourceBytes(relativePath);
+    }
+
+    /**
+     * Parses the contents of an ECS schema file, as returned by {@link #readEcsFile}.
+     */
+    static List<Schema> parseEcsFile(String relativePath, byte[] contents) {
+        return PARSER.parseEcsFile(relativePath, new ByteArrayInputStream(contents));
+    }
+
+    private static Optional<FieldsetIndex> loadFieldsetIndex() {
+        InputStream index = Loader.class.getResourceAsStream("/" + PATH_PREFIX + "/" + FIELDSET_INDEX_PATH);
+        if (index == null) {
+            return Optional.empty();
+        }
+
+        try (InputStream in = index) {
+            return FieldsetIndex.read(in, bundledContentHash());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read ECS fieldset index", e);
+        }
+    }
+
+    private static List<Schema> select(Stream<List<Schema>> files, Set<String> fieldsets) {
+        return files.flatMap(List::stream)
+                .filter(schema -> fieldsets.contains(schema.getName()))
+                .map(schema -> withReuseLimitedTo(schema, fieldsets))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops reuse beneath any fieldset other than those given from a schema's {@code reusable.expected}.
+     */
+    static Schema withReuseLimitedTo(Schema schema, Set<String> fieldsets) {
+        if (!schema.getReusable().isPresent()) {
+            return schema;
+        }
+
+        ReusabilityDeclaration reusable = schema.getReusable().get();
+        List<String> expected = reusable.getExpected().stream()
+                .filter(path -> fieldsets.contains(FieldsetIndex.container(path)))
+                .collect(Collectors.toList());
+
+        return expected.size() == reusable.getExpected().size()
+                ? schema
+                : schema.toBuilder().reusable(reusable.toBuilder().expected(expected).build()).build();
+    }
+
     private static String loadSchemaManifest() {
         return ecsResource(MANIFEST_PATH);
     }
 
     private static String ecsResource(String relativePath) {
-        return IoUtils.toUtf8String(Loader.class.getResourceAsStream("/" + PATH_PREFIX + "/" + relativePath));
+        return IoUtils.toUtf8String(openEcsResource(relativePath));
+    }
+
+    private static byte[] ecsResourceBytes(String relativePath) {
+        return ecsResource(relativePath).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static InputStream openEcsResource(String relativePath) {
+        InputStream stream = Loader.class.getResourceAsStream("/" + PATH_PREFIX + "/" + relativePath);
+        if (stream == null) {
+            throw new RuntimeException("ECS resource not found: " + relativePath);
+        }
+
+        return stream;
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private static final class EcsFileParser {
-        private final ObjectMapper mapper;
+        private final ObjectReader reader;
 
         EcsFileParser(ObjectMapper mapper) {
-            this.mapper = mapper;
+            // ObjectReader instances are immutable and thread-safe, so a single reader with the collection type
+            // already resolved can be shared across every file and thread.
+            this.reader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, Schema.class));
+        }
+
+        List<Schema> parseEcsFile(String relativePath) {
+            return parseEcsFile(relativePath, openEcsResource(relativePath));
         }
 
-        List<Schema> parseEcsFile(String ecsResourceFile) {
-            try {
-                return mapper.readValue(ecsResourceFile,
-                        mapper.getTypeFactory().constructCollectionType(List.class, Schema.class));
+        List<Schema> parseEcsFile(String relativePath, InputStream contents) {
+            try (Phase phase = Phase.start("parse", relativePath); InputStream stream = contents) {
+                List<Schema> schemata = reader.readValue(stream);
+                if (phase.isRecording()) {
+                    phase.count(Phase.Counter.FIELDS, schemata.stream()
+                            .mapToLong(schema -> schema.getFields().map(List::size).orElse(0))
+                            .sum());
+                }
+
+                return schemata;
             } catch (IOException e) {
-                throw new RuntimeException("Unable to parse ECS schema", e);
+                throw new RuntimeException("Unable to parse ECS schema " + relativePath, e);
             }
         }
     }
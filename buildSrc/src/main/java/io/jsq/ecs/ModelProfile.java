@@ -0,0 +1,153 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.Schema;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A named subset of ECS from which a separate, smaller Smithy model is generated.
+ *
+ * <p>Profiles are declared as a list of directives:
+ *
+ * <ul>
+ *     <li>{@code core-only} omits fields at the extended level;</li>
+ *     <li>{@code indexed-only} omits fields that are not indexed;</li>
+ *     <li>{@code no-documentation} omits documentation traits, including those of enum constants; and</li>
+ *     <li>{@code exclude-fieldsets=a,b} omits the named fieldsets, along with their reuse beneath other fieldsets and
+ *     the reuse of other fieldsets beneath them.</li>
+ * </ul>
+ */
+final class ModelProfile {
+    private static final String EXCLUDE_FIELDSETS = "exclude-fieldsets=";
+
+    private final String name;
+    private final boolean coreOnly;
+    private final boolean indexedOnly;
+    private final boolean documented;
+    private final Set<String> excludedFieldsets;
+
+    private ModelProfile(Builder builder) {
+        name = Objects.requireNonNull(builder.name);
+        coreOnly = builder.coreOnly;
+        indexedOnly = builder.indexedOnly;
+        documented = builder.documented;
+        excludedFieldsets = Collections.unmodifiableSet(new LinkedHashSet<>(builder.excludedFieldsets));
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static ModelProfile fromDirectives(String name, List<String> directives) {
+        Builder builder = builder().name(name);
+        Set<String> excludedFieldsets = new LinkedHashSet<>();
+        for (String directive : directives) {
+            if (directive.equals("core-only")) {
+                builder.coreOnly(true);
+            } else if (directive.equals("indexed-only")) {
+                builder.indexedOnly(true);
+            } else if (directive.equals("no-documentation")) {
+                builder.documented(false);
+            } else if (directive.startsWith(EXCLUDE_FIELDSETS)) {
+                Arrays.stream(directive.substring(EXCLUDE_FIELDSETS.length()).split(","))
+                        .map(String::trim)
+                        .filter(fieldset -> !fieldset.isEmpty())
+                        .forEach(excludedFieldsets::add);
+            } else {
+                throw new RuntimeException("Unrecognized directive in model profile " + name + ": " + directive);
+            }
+        }
+
+        return builder.excludedFieldsets(excludedFieldsets).build();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Creates a model builder configured for this profile.
+     */
+    SmithyModelBuilder newModelBuilder(String namespace, String rootShapeName) {
+        return new SmithyModelBuilder(namespace, rootShapeName, documented);
+    }
+
+    /**
+     * Trims the given schemata to this profile. Fieldsets left without fields are kept so that the model's structure
+     * is the same as that of the full model.
+     */
+    List<Schema> apply(List<Schema> schemata) {
+        Set<String> fieldsets = schemata.stream().map(Schema::getName).collect(Collectors.toSet());
+        for (String excludedFieldset : excludedFieldsets) {
+            if (!fieldsets.remove(excludedFieldset)) {
+                throw new RuntimeException("Model profile " + name + " excludes an unknown fieldset: "
+                        + excludedFieldset);
+            }
+        }
+
+        return schemata.stream()
+                .filter(schema -> fieldsets.contains(schema.getName()))
+                .map(schema -> Loader.withReuseLimitedTo(schema, fieldsets))
+                .map(this::trimFields)
+                .collect(Collectors.toList());
+    }
+
+    private Schema trimFields(Schema schema) {
+        if (!coreOnly && !indexedOnly || !schema.getFields().isPresent()) {
+            return schema;
+        }
+
+        return schema.toBuilder()
+                .fields(schema.getFields().get().stream()
+                        .filter(field -> !coreOnly || field.getLevel() != FieldSchema.Level.EXTENDED)
+                        .filter(field -> !indexedOnly || field.isIndexed())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    static final class Builder {
+        private String name;
+        private boolean coreOnly;
+        private boolean indexedOnly;
+        private boolean documented = true;
+        private Set<String> excludedFieldsets = Collections.emptySet();
+
+        private Builder() {
+        }
+
+        Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        Builder coreOnly(boolean coreOnly) {
+            this.coreOnly = coreOnly;
+            return this;
+        }
+
+        Builder indexedOnly(boolean indexedOnly) {
+            this.indexedOnly = indexedOnly;
+            return this;
+        }
+
+        Builder documented(boolean documented) {
+            this.documented = documented;
+            return this;
+        }
+
+        Builder excludedFieldsets(Set<String> excludedFieldsets) {
+            this.excludedFieldsets = excludedFieldsets;
+            return this;
+        }
+
+        ModelProfile build() {
+            return new ModelProfile(this);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.jsq.ecs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.loader.Prelude;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeIndex;
+import software.amazon.smithy.model.validation.ValidatedResult;
+import software.amazon.smithy.model.validation.ValidationEvent;
+import software.amazon.smithy.model.validation.Validator;
+import software.amazon.smithy.model.validation.ValidatorFactory;
+
+/**
+ * Validates models built by {@link SmithyModelBuilder#buildUnvalidated()} with Smithy's built-in validators,
+ * separately from building them.
+ *
+ * <p>Validators are run concurrently, as each reads the model without modifying it. {@link #validateChanges}
+ * additionally remembers the shapes and events of the last model validated. If the only changes since are to the
+ * traits of existing shapes, e.g., edited documentation, it revalidates only the changed shapes, along with the shapes
+ * that refer to them and everything they refer to, and carries over the events about any other shape. Any other
+ * change is validated in full, as some validators, e.g., those for shape ID conflicts, consider the model as a whole.
+ * State is held in memory only, so it lasts as long as this instance. Instances are thread-safe.
+ */
+final class ModelValidation {
+    /**
+     * How, if at all, a generated model is validated.
+     */
+    enum Mode {
+        /** Assembles the model with Smithy's model assembler, which validates it in full. */
+        FULL("full"),
+        /** Builds the model without validation, then runs every validator over it concurrently. */
+        CONCURRENT("concurrent"),
+        /** Builds the model without validation, then revalidates only the shapes changed since the last run. */
+        INCREMENTAL("incremental"),
+        /** Builds the model without validation. */
+        NONE("none");
+
+        private final String modeName;
+
+        Mode(String modeName) {
+            this.modeName = modeName;
+        }
+
+        String getModeName() {
+            return modeName;
+        }
+
+        static Mode fromModeName(String modeName) {
+            for (Mode mode : values()) {
+                if (mode.modeName.equals(modeName)) {
+                    return mode;
+                }
+            }
+
+            throw new RuntimeException("Unrecognized validation mode: " + modeName);
+        }
+    }
+
+    private final List<Validator> validators;
+    private Map<ShapeId, Shape> validatedShapes = Collections.emptyMap();
+    private List<ValidationEvent> validatedEvents = Collections.emptyList();
+
+    ModelValidation(ClassLoader classLoader) {
+        validators = Collections.unmodifiableList(new ArrayList<>(
+                ValidatorFactory.createServiceFactory(classLoader).loadBuiltinValidators()));
+    }
+
+    /**
+     * Validates every shape in a model.
+     */
+    synchronized ValidatedResult<Model> validate(Model model) {
+        List<ValidationEvent> events = runValidators(model);
+        remember(model, events);
+
+        return new ValidatedResult<>(model, events);
+    }
+
+    /**
+     * Validates the shapes of a model that differ from those of the last model validated by this instance, or every
+     * shape if this instance has not validated a model before.
+     */
+    synchronized ValidatedResult<Model> validateChanges(Model model) {
+        if (validatedShapes.isEmpty()) {
+            return validate(model);
+        }
+
+        ShapeIndex index = model.getShapeIndex();
+        Map<ShapeId, Shape> shapes = index.shapes().collect(Collectors.toMap(Shape::getId, Function.identity()));
+        Set<ShapeId> changed = new HashSet<>();
+        shapes.forEach((id, shape) -> {
+            if (!shape.equals(validatedShapes.get(id))) {
+                changed.add(id);
+            }
+        });
+        if (changed.isEmpty() && shapes.size() == validatedShapes.size()) {
+            return new ValidatedResult<>(model, validatedEvents);
+        }
+        // Validators such as the shape ID conflict and unreferenced shape validators consider the model as a whole,
+        // so any change to which shapes exist or to what they target is validated in full
+        if (shapes.size() != validatedShapes.size()
+                || changed.stream().anyMatch(id -> isStructuralChange(validatedShapes.get(id), shapes.get(id)))) {
+            return validate(model);
+        }
+
+        Set<ShapeId> revalidated = affectedShapes(shapes, changed);
+        ShapeIndex.Builder subset = ShapeIndex.builder();
+        revalidated.stream().map(shapes::get).forEach(subset::addShape);
+        List<ValidationEvent> events = new ArrayList<>();
+        for (ValidationEvent event : validatedEvents) {
+            if (event.getShapeId().filter(id -> !revalidated.contains(id) && shapes.containsKey(id)).isPresent()) {
+                events.add(event);
+            }
+        }
+        for (ValidationEvent event : runValidators(model.toBuilder().shapeIndex(subset.build()).build())) {
+            if (event.getShapeId().map(revalidated::contains).orElse(true)) {
+                events.add(event);
+            }
+        }
+        remember(model, events);
+
+        return new ValidatedResult<>(model, events);
+    }
+
+    // A change is structural unless it only changes the traits of an existing shape. Members added or removed are
+    // themselves shapes added or removed.
+    private static boolean isStructuralChange(Shape previous, Shape current) {
+        if (previous == null || previous.getType() != current.getType()) {
+            return true;
+        }
+
+        return current.asMemberShape()
+                .filter(member -> !member.getTarget().equals(previous.asMemberShape().get().getTarget()))
+                .isPresent();
+    }
+
+    // The changed shapes and the shapes with members targeting them, plus the prelude and everything these contain or
+    // target, so that the subset of the model validated is closed
+    private static Set<ShapeId> affectedShapes(Map<ShapeId, Shape> shapes, Set<ShapeId> changed) {
+        Map<ShapeId, List<MemberShape>> referrers = new HashMap<>();
+        shapes.values().forEach(shape -> shape.asMemberShape().ifPresent(member -> referrers
+                .computeIfAbsent(member.getTarget(), k -> new ArrayList<>())
+                .add(member)));
+
+        Deque<ShapeId> pending = new ArrayDeque<>(changed);
+        shapes.keySet().stream().filter(Prelude::isPreludeShape).forEach(pending::add);
+        changed.forEach(id -> referrers.getOrDefault(id, Collections.emptyList())
+                .forEach(member -> pending.add(member.getId().withoutMember())));
+        Set<ShapeId> affected = new HashSet<>();
+        while (!pending.isEmpty()) {
+            ShapeId id = pending.removeFirst();
+            Shape shape = shapes.get(id);
+            if (shape != null && affected.add(id)) {
+                for (MemberShape member : shape.members()) {
+                    pending.add(member.getId());
+                    pending.add(member.getTarget());
+                }
+                shape.asMemberShape().ifPresent(member -> {
+                    pending.add(member.getId().withoutMember());
+                    pending.add(member.getTarget());
+                });
+            }
+        }
+
+        return affected;
+    }
+
+    private List<ValidationEvent> runValidators(Model model) {
+        return validators.parallelStream()
+                .flatMap(validator -> validator.validate(model).stream())
+                .collect(Collectors.toList());
+    }
+
+    private void remember(Model model, List<ValidationEvent> events) {
+        validatedShapes = model.getShapeIndex().shapes()
+                .collect(Collectors.toMap(Shape::getId, Function.identity()));
+        validatedEvents = Collections.unmodifiableList(events);
+    }
+}
@@ -0,0 +1,81 @@
+package io.jsq.ecs;
+
+/**
+ * A timed phase of model generation, such as parsing a schema file or applying an extension to a shape.
+ *
+ * <p>A phase is reported both as a JFR event, if JFR is available and recording {@link PhaseEvent phase events}, and
+ * to the active {@link PhaseReport}, if one has been started. If neither is the case, {@link #start} returns a shared
+ * instance that does nothing, so instrumented code costs almost nothing when no one is watching.
+ */
+final class Phase implements AutoCloseable {
+    enum Counter {
+        FILES, FIELDS, SHAPES, MEMBERS, BYTES
+    }
+
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+    private static final Phase DISABLED = new Phase(null, null, null, null);
+
+    private final String name;
+    private final String subject;
+    private final PhaseReport report;
+    private final PhaseEvent event;
+    private final long[] counters;
+    private final long startNanos;
+
+    private Phase(String name, String subject, PhaseReport report, PhaseEvent event) {
+        this.name = name;
+        this.subject = subject;
+        this.report = report;
+        this.event = event;
+        counters = name == null ? null : new long[Counter.values().length];
+        startNanos = report == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Starts a phase, which ends when closed.
+     *
+     * @param name the kind of phase, e.g., {@code parse}.
+     * @param subject what the phase operates on, e.g., the name of a file, or an empty string.
+     */
+    static Phase start(String name, String subject) {
+        PhaseReport report = PhaseReport.active();
+        PhaseEvent event = JFR_AVAILABLE ? PhaseEvent.beginIfEnabled() : null;
+
+        return report == null && event == null ? DISABLED : new Phase(name, subject, report, event);
+    }
+
+    /**
+     * Whether this phase is being reported at all. Counters that are costly to compute should only be computed if so.
+     */
+    boolean isRecording() {
+        return counters != null;
+    }
+
+    Phase count(Counter counter, long amount) {
+        if (counters != null) {
+            counters[counter.ordinal()] += amount;
+        }
+
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (report != null) {
+            report.record(name, subject, System.nanoTime() - startNanos, counters);
+        }
+        if (event != null) {
+            PhaseEvent.commit(event, name, subject, counters);
+        }
+    }
+
+    // JFR was only backported to Java 8 in update 262, so the event class must not be loaded on earlier versions
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Phase.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
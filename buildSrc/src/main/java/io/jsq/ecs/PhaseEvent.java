@@ -0,0 +1,68 @@
+package io.jsq.ecs;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recording one {@link Phase} of model generation. Like all custom events, it is enabled in any recording
+ * unless disabled by the recording's settings, e.g., when the Gradle daemon is started with {@code
+ * -XX:StartFlightRecording=filename=build.jfr} in {@code org.gradle.jvmargs}.
+ */
+@Name("io.jsq.ecs.Phase")
+@Label("ECS Model Generation Phase")
+@Category({"Elastic Common Schema", "Model Generation"})
+@Description("A phase of converting ECS schemata into a Smithy model")
+@StackTrace(false)
+final class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Subject")
+    @Description("The file, schema, or extension on which the phase operated, if any")
+    String subject;
+
+    @Label("Files")
+    long files;
+
+    @Label("Fields")
+    long fields;
+
+    @Label("Shapes")
+    long shapes;
+
+    @Label("Members")
+    long members;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    static PhaseEvent beginIfEnabled() {
+        PhaseEvent event = new PhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    static void commit(PhaseEvent event, String phase, String subject, long[] counters) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.subject = subject;
+            event.files = counters[Phase.Counter.FILES.ordinal()];
+            event.fields = counters[Phase.Counter.FIELDS.ordinal()];
+            event.shapes = counters[Phase.Counter.SHAPES.ordinal()];
+            event.members = counters[Phase.Counter.MEMBERS.ordinal()];
+            event.bytes = counters[Phase.Counter.BYTES.ordinal()];
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package io.jsq.ecs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Aggregates the {@link Phase phases} of a model generation run by kind and by subject, and writes them as a JSON
+ * report for finding slow builds and comparing runs, e.g., across ECS versions or sets of extensions.
+ *
+ * <p>A report is active on the thread that started it, and on any thread running a function wrapped with {@link
+ * #propagate} while that function runs, so concurrent tasks, e.g., in a parallel Gradle build, each keep their own
+ * report. Each thread aggregates its phases separately, without locking, and the aggregates are merged when read.
+ */
+final class PhaseReport {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ThreadLocal<PhaseReport> ACTIVE = new ThreadLocal<>();
+
+    private final Queue<Map<String, Aggregate>> threadPhases = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Map<String, Aggregate>> phases = ThreadLocal.withInitial(() -> {
+        Map<String, Aggregate> local = new LinkedHashMap<>();
+        threadPhases.add(local);
+        return local;
+    });
+    // Orders phases, and the subjects of each, by when they were first recorded on any thread
+    private final AtomicLong sequence = new AtomicLong();
+    private final Thread owner = Thread.currentThread();
+    private final long startNanos = System.nanoTime();
+    private long elapsedNanos = -1;
+
+    private PhaseReport() {
+    }
+
+    /**
+     * Starts a report and makes it the active one on the current thread.
+     *
+     * @throws RuntimeException if a report is already active on the current thread.
+     */
+    static PhaseReport start() {
+        if (ACTIVE.get() != null) {
+            throw new RuntimeException("A phase report is already active on this thread");
+        }
+
+        PhaseReport report = new PhaseReport();
+        ACTIVE.set(report);
+        return report;
+    }
+
+    static PhaseReport active() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Wraps a function, e.g., one to be run by a parallel stream, so that the report active on the current thread, if
+     * any, is active on whichever thread runs it.
+     */
+    static <T, R> Function<T, R> propagate(Function<T, R> function) {
+        PhaseReport report = ACTIVE.get();
+        if (report == null) {
+            return function;
+        }
+
+        return value -> {
+            PhaseReport previous = ACTIVE.get();
+            ACTIVE.set(report);
+            try {
+                return function.apply(value);
+            } finally {
+                if (previous == null) {
+                    ACTIVE.remove();
+                } else {
+                    ACTIVE.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Stops this report, after which no more phases are added to it. Must be called by the thread that started it.
+     */
+    void stop() {
+        if (Thread.currentThread() == owner && ACTIVE.get() == this) {
+            ACTIVE.remove();
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    void record(String name, String subject, long nanos, long[] counters) {
+        Map<String, Aggregate> local = phases.get();
+        // Only contended while the report is being read
+        synchronized (local) {
+            Aggregate phase = local.computeIfAbsent(name, k -> new Aggregate(sequence.getAndIncrement()));
+            phase.add(nanos, counters);
+            phase.subjects.computeIfAbsent(subject, k -> new Aggregate(sequence.getAndIncrement()))
+                    .add(nanos, counters);
+        }
+    }
+
+    /**
+     * @return the number of times the given phase was recorded.
+     */
+    long count(String name) {
+        Aggregate phase = merged().get(name);
+        return phase == null ? 0 : phase.count;
+    }
+
+    /**
+     * @return the total of a counter across every recording of the given phase.
+     */
+    long total(String name, Phase.Counter counter) {
+        Aggregate phase = merged().get(name);
+        return phase == null ? 0 : phase.counters[counter.ordinal()];
+    }
+
+    /**
+     * Writes the report as UTF-8 encoded JSON followed by a line separator to the given file, creating its parent
+     * directories if necessary. Phases are listed in the order in which they were first recorded.
+     */
+    void write(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                    JsonGenerator generator = JSON.createGenerator(writer)) {
+                generator.useDefaultPrettyPrinter();
+                writeReport(generator, merged());
+                generator.writeRaw(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write " + file, e);
+        }
+    }
+
+    private Map<String, Aggregate> merged() {
+        Map<String, Aggregate> merged = new LinkedHashMap<>();
+        for (Map<String, Aggregate> local : threadPhases) {
+            synchronized (local) {
+                Aggregate.mergeAll(local, merged);
+            }
+        }
+
+        return Aggregate.ordered(merged);
+    }
+
+    private void writeReport(JsonGenerator generator, Map<String, Aggregate> phases) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("totalMillis", millis(elapsedNanos < 0 ? System.nanoTime() - startNanos
+                : elapsedNanos));
+        generator.writeArrayFieldStart("phases");
+        for (Map.Entry<String, Aggregate> phase : phases.entrySet()) {
+            generator.writeStartObject();
+            generator.writeStringField("phase", phase.getKey());
+            phase.getValue().writeFields(generator);
+            generator.writeArrayFieldStart("subjects");
+            for (Map.Entry<String, Aggregate> subject : phase.getValue().subjects.entrySet()) {
+                if (!subject.getKey().isEmpty()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("subject", subject.getKey());
+                    subject.getValue().writeFields(generator);
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class Aggregate {
+        private Map<String, Aggregate> subjects = new LinkedHashMap<>();
+        private final long[] counters = new long[Phase.Counter.values().length];
+        private long sequence;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Aggregate(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void add(long nanos, long[] phaseCounters) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] += phaseCounters[i];
+            }
+        }
+
+        static void mergeAll(Map<String, Aggregate> from, Map<String, Aggregate> into) {
+            from.forEach((name, aggregate) -> {
+                Aggregate merged = into.computeIfAbsent(name, k -> new Aggregate(aggregate.sequence));
+                merged.sequence = Math.min(merged.sequence, aggregate.sequence);
+                merged.count += aggregate.count;
+                merged.totalNanos += aggregate.totalNanos;
+                merged.maxNanos = Math.max(merged.maxNanos, aggregate.maxNanos);
+                for (int i = 0; i < merged.counters.length; i++) {
+                    merged.counters[i] += aggregate.counters[i];
+                }
+                mergeAll(aggregate.subjects, merged.subjects);
+            });
+        }
+
+        static Map<String, Aggregate> ordered(Map<String, Aggregate> aggregates) {
+            List<Map.Entry<String, Aggregate>> entries = new ArrayList<>(aggregates.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().sequence));
+            Map<String, Aggregate> ordered = new LinkedHashMap<>();
+            for (Map.Entry<String, Aggregate> entry : entries) {
+                entry.getValue().subjects = ordered(entry.getValue().subjects);
+                ordered.put(entry.getKey(), entry.getValue());
+            }
+
+            return ordered;
+        }
+
+        void writeFields(JsonGenerator generator) throws IOException {
+            generator.writeNumberField("count", count);
+            generator.writeNumberField("totalMillis", millis(totalNanos));
+            generator.writeNumberField("maxMillis", millis(maxNanos));
+            for (Phase.Counter counter : Phase.Counter.values()) {
+                if (counters[counter.ordinal()] != 0) {
+                    generator.writeNumberField(counter.name().toLowerCase(), counters[counter.ordinal()]);
+                }
+            }
+        }
+    }
+}
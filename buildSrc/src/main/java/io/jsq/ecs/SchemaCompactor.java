@@ -0,0 +1,106 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.AllowedValue;
+import io.jsq.ecs.model.AlternateFieldDeclaration;
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.ReusabilityDeclaration;
+import io.jsq.ecs.model.Schema;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Produces lean copies of parsed schemata for processes that keep them resident, e.g., one catalog per tenant.
+ *
+ * <p>Strings that repeat across fields and fieldsets, i.e., names, titles, formats, normalizations, allowed values,
+ * and expected event types, are interned, so each distinct value is held once per JVM no matter how often it appears
+ * or how many copies of the schemata are loaded. Unless documentation is kept, descriptions are replaced with the
+ * empty string and short descriptions, examples, and footnotes are dropped; the documentation of a fieldset can be
+ * fetched again when needed with {@link Loader#loadSchema}.
+ */
+final class SchemaCompactor {
+    private SchemaCompactor() {
+    }
+
+    static List<Schema> compact(List<Schema> schemata, boolean keepDocumentation) {
+        return schemata.stream()
+                .map(schema -> compact(schema, keepDocumentation))
+                .collect(Collectors.toList());
+    }
+
+    static Schema compact(Schema schema, boolean keepDocumentation) {
+        Schema.Builder builder = Schema.builder()
+                .name(intern(schema.getName()))
+                .title(intern(schema.getTitle()))
+                .description(keepDocumentation ? schema.getDescription() : "")
+                .type(schema.getType());
+        schema.getGroup().ifPresent(builder::group);
+        schema.getRoot().ifPresent(builder::root);
+        schema.getReusable().ifPresent(reusable -> builder.reusable(ReusabilityDeclaration.builder()
+                .topLevel(reusable.getTopLevel())
+                .expected(internAll(reusable.getExpected()))
+                .build()));
+        schema.getFields().ifPresent(fields -> builder.fields(fields.stream()
+                .map(field -> compact(field, keepDocumentation))
+                .collect(Collectors.toList())));
+        if (keepDocumentation) {
+            schema.getShortDescription().ifPresent(builder::shortDescription);
+            schema.getFootnote().ifPresent(builder::footnote);
+        }
+
+        return builder.build();
+    }
+
+    private static FieldSchema compact(FieldSchema field, boolean keepDocumentation) {
+        FieldSchema.Builder builder = FieldSchema.builder()
+                .name(intern(field.getName()))
+                .type(field.getType())
+                .level(field.getLevel())
+                .description(keepDocumentation ? field.getDescription() : "");
+        field.getRequired().ifPresent(builder::required);
+        field.getIndex().ifPresent(builder::index);
+        field.getObjectType().ifPresent(builder::objectType);
+        field.getDocValues().ifPresent(builder::docValues);
+        field.getOutputPrecision().ifPresent(builder::outputPrecision);
+        field.getIgnoreAbove().ifPresent(builder::ignoreAbove);
+        field.getFormat().map(SchemaCompactor::intern).ifPresent(builder::format);
+        field.getInputFormat().map(SchemaCompactor::intern).ifPresent(builder::inputFormat);
+        field.getOutputFormat().map(SchemaCompactor::intern).ifPresent(builder::outputFormat);
+        field.getNormalize().map(SchemaCompactor::internAll).ifPresent(builder::normalize);
+        field.getMultiFields().ifPresent(multiFields -> builder.multiFields(multiFields.stream()
+                .map(SchemaCompactor::compact)
+                .collect(Collectors.toList())));
+        field.getAllowedValues().ifPresent(values -> builder.allowedValues(values.stream()
+                .map(value -> compact(value, keepDocumentation))
+                .collect(Collectors.toList())));
+        if (keepDocumentation) {
+            field.getShortDescription().ifPresent(builder::shortDescription);
+            field.getExample().ifPresent(builder::example);
+        }
+
+        return builder.build();
+    }
+
+    private static AllowedValue compact(AllowedValue value, boolean keepDocumentation) {
+        AllowedValue.Builder builder = AllowedValue.builder()
+                .name(intern(value.getName()))
+                .description(keepDocumentation ? value.getDescription() : "");
+        value.getExpectedEventTypes().map(SchemaCompactor::internAll).ifPresent(builder::expectedEventTypes);
+
+        return builder.build();
+    }
+
+    private static AlternateFieldDeclaration compact(AlternateFieldDeclaration multiField) {
+        AlternateFieldDeclaration.Builder builder = AlternateFieldDeclaration.builder().type(multiField.getType());
+        multiField.getName().map(SchemaCompactor::intern).ifPresent(builder::name);
+
+        return builder.build();
+    }
+
+    private static String intern(String value) {
+        return value.intern();
+    }
+
+    private static List<String> internAll(List<String> values) {
+        return values.stream().map(String::intern).collect(Collectors.toList());
+    }
+}
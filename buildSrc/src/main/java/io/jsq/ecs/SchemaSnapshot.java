@@ -0,0 +1,354 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.AllowedValue;
+import io.jsq.ecs.model.AlternateFieldDeclaration;
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.ReusabilityDeclaration;
+import io.jsq.ecs.model.Schema;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A compact binary encoding of parsed ECS schemata.
+ *
+ * <p>Snapshots are generated at build time and bundled next to the ECS manifest so that consumers can skip YAML
+ * parsing entirely. Each snapshot records the content hash of the YAML it was generated from; a snapshot whose hash
+ * does not match the bundled YAML is considered stale and will not be read.
+ */
+final class SchemaSnapshot {
+    private static final int MAGIC = 0x45435353;
+    private static final int VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INTEGER = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_BOOLEAN = 5;
+    private static final byte TAG_LIST = 6;
+    private static final byte TAG_MAP = 7;
+    private static final byte TAG_BIG_INTEGER = 8;
+    private static final byte TAG_BIG_DECIMAL = 9;
+
+    private SchemaSnapshot() {}
+
+    /**
+     * Writes a snapshot of the schemata bundled on the classpath to the path given as the sole argument.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: SchemaSnapshot <output file>");
+        }
+
+        try (OutputStream out = new FileOutputStream(args[0])) {
+            write(Loader.loadSchemata(), Loader.contentHash(), out);
+        }
+    }
+
+    static void write(List<Schema> schemata, String contentHash, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, contentHash);
+        writeList(out, schemata, SchemaSnapshot::writeSchema);
+        out.flush();
+    }
+
+    /**
+     * Reads a snapshot, returning an empty optional if the snapshot was written by an incompatible version of this
+     * class or from YAML whose content hash differs from the one provided.
+     */
+    static Optional<List<Schema>> read(InputStream inputStream, String expectedContentHash) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION || !expectedContentHash.equals(readString(in))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(readList(in, SchemaSnapshot::readSchema));
+    }
+
+    private static void writeSchema(DataOutputStream out, Schema schema) throws IOException {
+        writeString(out, schema.getName());
+        writeString(out, schema.getTitle());
+        writeString(out, schema.getDescription());
+        writeEnum(out, schema.getType());
+        writeInteger(out, schema.getGroup().orElse(null));
+        writeString(out, schema.getShortDescription().orElse(null));
+        writeString(out, schema.getFootnote().orElse(null));
+        writeBoolean(out, schema.getRoot().orElse(null));
+        ReusabilityDeclaration reusable = schema.getReusable().orElse(null);
+        out.writeBoolean(reusable != null);
+        if (reusable != null) {
+            writeBoolean(out, reusable.getTopLevel());
+            writeList(out, reusable.getExpected(), SchemaSnapshot::writeString);
+        }
+        writeList(out, schema.getFields().orElse(null), SchemaSnapshot::writeField);
+    }
+
+    private static Schema readSchema(DataInputStream in) throws IOException {
+        Schema.Builder builder = Schema.builder()
+                .name(readString(in))
+                .title(readString(in))
+                .description(readString(in))
+                .type(readEnum(in, Schema.SchemaType.values()))
+                .group(readInteger(in))
+                .shortDescription(readString(in))
+                .footnote(readString(in))
+                .root(readBoolean(in));
+        if (in.readBoolean()) {
+            builder.reusable(ReusabilityDeclaration.builder()
+                    .topLevel(readBoolean(in))
+                    .expected(readList(in, SchemaSnapshot::readString))
+                    .build());
+        }
+
+        return builder.fields(readList(in, SchemaSnapshot::readField)).build();
+    }
+
+    private static void writeField(DataOutputStream out, FieldSchema field) throws IOException {
+        writeString(out, field.getName());
+        writeEnum(out, field.getType());
+        writeEnum(out, field.getLevel());
+        writeBoolean(out, field.getRequired().orElse(null));
+        writeString(out, field.getShortDescription().orElse(null));
+        writeString(out, field.getDescription());
+        writeObject(out, field.getExample().orElse(null));
+        writeBoolean(out, field.getIndex().orElse(null));
+        writeList(out, field.getAllowedValues().orElse(null), SchemaSnapshot::writeAllowedValue);
+        writeEnum(out, field.getObjectType().orElse(null));
+        writeList(out, field.getMultiFields().orElse(null), SchemaSnapshot::writeAlternateField);
+        writeString(out, field.getFormat().orElse(null));
+        writeBoolean(out, field.getDocValues().orElse(null));
+        writeString(out, field.getInputFormat().orElse(null));
+        writeString(out, field.getOutputFormat().orElse(null));
+        out.writeBoolean(field.getOutputPrecision().isPresent());
+        if (field.getOutputPrecision().isPresent()) {
+            out.writeDouble(field.getOutputPrecision().get());
+        }
+        writeInteger(out, field.getIgnoreAbove().orElse(null));
+        writeList(out, field.getNormalize().orElse(null), SchemaSnapshot::writeString);
+    }
+
+    private static FieldSchema readField(DataInputStream in) throws IOException {
+        return FieldSchema.builder()
+                .name(readString(in))
+                .type(readEnum(in, FieldSchema.Type.values()))
+                .level(readEnum(in, FieldSchema.Level.values()))
+                .required(readBoolean(in))
+                .shortDescription(readString(in))
+                .description(readString(in))
+                .example(readObject(in))
+                .index(readBoolean(in))
+                .allowedValues(readList(in, SchemaSnapshot::readAllowedValue))
+                .objectType(readEnum(in, FieldSchema.Type.values()))
+                .multiFields(readList(in, SchemaSnapshot::readAlternateField))
+                .format(readString(in))
+                .docValues(readBoolean(in))
+                .inputFormat(readString(in))
+                .outputFormat(readString(in))
+                .outputPrecision(in.readBoolean() ? in.readDouble() : null)
+                .ignoreAbove(readInteger(in))
+                .normalize(readList(in, SchemaSnapshot::readString))
+                .build();
+    }
+
+    private static void writeAllowedValue(DataOutputStream out, AllowedValue value) throws IOException {
+        writeString(out, value.getName());
+        writeString(out, value.getDescription());
+        writeList(out, value.getExpectedEventTypes().orElse(null), SchemaSnapshot::writeString);
+    }
+
+    private static AllowedValue readAllowedValue(DataInputStream in) throws IOException {
+        return AllowedValue.builder()
+                .name(readString(in))
+                .description(readString(in))
+                .expectedEventTypes(readList(in, SchemaSnapshot::readString))
+                .build();
+    }
+
+    private static void writeAlternateField(DataOutputStream out, AlternateFieldDeclaration alt) throws IOException {
+        writeEnum(out, alt.getType());
+        writeString(out, alt.getName().orElse(null));
+    }
+
+    private static AlternateFieldDeclaration readAlternateField(DataInputStream in) throws IOException {
+        return AlternateFieldDeclaration.builder()
+                .type(readEnum(in, FieldSchema.Type.values()))
+                .name(readString(in))
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    private static Boolean readBoolean(DataInputStream in) throws IOException {
+        byte value = in.readByte();
+        return value < 0 ? null : value == 1;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? -1 : value.ordinal());
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        byte ordinal = in.readByte();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private static <T> void writeList(DataOutputStream out, List<T> values, Writer<T> writer) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        out.writeInt(values.size());
+        for (T value : values) {
+            writer.write(out, value);
+        }
+    }
+
+    private static <T> List<T> readList(DataInputStream in, Reader<T> reader) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(reader.read(in));
+        }
+
+        return values;
+    }
+
+    // Examples are free-form YAML, so they are encoded with a type tag for each of the values Jackson may produce.
+    private static void writeObject(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof List) {
+            out.writeByte(TAG_LIST);
+            writeList(out, (List<?>) value, SchemaSnapshot::writeObject);
+        } else if (value instanceof Map) {
+            out.writeByte(TAG_MAP);
+            out.writeInt(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writeObject(out, entry.getKey());
+                writeObject(out, entry.getValue());
+            }
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeString(out, value.toString());
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TAG_BIG_DECIMAL);
+            writeString(out, value.toString());
+        } else {
+            throw new RuntimeException("Unable to encode value of type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readObject(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_INTEGER:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_LIST:
+                return readList(in, SchemaSnapshot::readObject);
+            case TAG_MAP:
+                int size = in.readInt();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readObject(in), readObject(in));
+                }
+                return Collections.unmodifiableMap(map);
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readString(in));
+            case TAG_BIG_DECIMAL:
+                return new BigDecimal(readString(in));
+            default:
+                throw new IOException("Unrecognized value tag in schema snapshot: " + tag);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
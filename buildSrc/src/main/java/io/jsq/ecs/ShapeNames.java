@@ -0,0 +1,175 @@
+package io.jsq.ecs;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+/**
+ * Converts ECS names into Smithy shape IDs and member names.
+ *
+ * <p>Names are converted with a single scan over their characters rather than with regular expressions, and every
+ * conversion is memoized, as the same segments (e.g., "name" or "id") recur throughout ECS. Shape IDs derived from
+ * nested ECS keys are likewise memoized per parent so that each is created only once.
+ *
+ * <p>Because sanitizing a name discards characters, two distinct ECS names may map to the same Smithy identifier.
+ * Nested shape IDs, member IDs, and the IDs of shapes {@link #claim claimed} for fields record the ECS name from which
+ * they were derived so that such collisions are reported rather than silently merging two fields.
+ *
+ * <p>Instances are thread-safe so that a single instance may be shared by schemata converted concurrently.
+ */
+final class ShapeNames {
+    private final String namespace;
+    private final Map<String, String> titleCases = new ConcurrentHashMap<>();
+    private final Map<String, String> segments = new ConcurrentHashMap<>();
+    private final Map<String, String> identifiers = new ConcurrentHashMap<>();
+    private final Map<ShapeId, Map<String, ShapeId>> nestedIds = new ConcurrentHashMap<>();
+    private final Map<ShapeId, String> origins = new ConcurrentHashMap<>();
+
+    ShapeNames(String namespace) {
+        this.namespace = namespace;
+    }
+
+    /**
+     * Returns the ID of a top-level shape with the given name in this namespace.
+     */
+    ShapeId shapeId(String shapeName) {
+        return ShapeId.fromParts(namespace, shapeName);
+    }
+
+    /**
+     * Returns the ID of the structure representing the ECS key {@code intermediateKey} nested within {@code parent},
+     * e.g., {@code HttpResponse} for the key "response" within {@code Http}.
+     */
+    ShapeId nestedShapeId(ShapeId parent, String intermediateKey) {
+        return nestedIds.computeIfAbsent(parent, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(intermediateKey, key -> claim(
+                        ShapeId.fromParts(namespace, parent.getName() + segments.computeIfAbsent(key,
+                                ShapeNames::sanitizeSegment)),
+                        parent + "." + key));
+    }
+
+    /**
+     * Converts an ECS field name into an UpperCamelCase identifier containing only ASCII letters and digits.
+     */
+    String identifier(String ecsName) {
+        return identifiers.computeIfAbsent(ecsName, ShapeNames::sanitizeIdentifier);
+    }
+
+    /**
+     * Converts an ECS field name into a lowerCamelCase member name, recording which field the member was created for.
+     */
+    String memberName(ShapeId container, String ecsName) {
+        String identifier = identifier(ecsName);
+        String memberName = Character.toLowerCase(identifier.charAt(0)) + identifier.substring(1);
+        claim(container.withMember(memberName), ecsName);
+
+        return memberName;
+    }
+
+    String titleCase(String toCapitalize) {
+        return titleCases.computeIfAbsent(toCapitalize, ShapeNames::capitalizeWords);
+    }
+
+    /**
+     * Converts an allowed value into the name of an enum constant, e.g., "network_traffic" to "NETWORK_TRAFFIC".
+     */
+    static String enumConstantName(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        boolean pendingSeparator = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isWordCharacter(c)) {
+                if (pendingSeparator && builder.length() > 0) {
+                    builder.append('_');
+                }
+                pendingSeparator = false;
+                builder.append(Character.toUpperCase(c));
+            } else {
+                pendingSeparator = true;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Records that a shape was created for the given origin, e.g., {@code example#Http.response} for the key "response"
+     * within {@code Http}, throwing if the same shape ID was already created for a different origin.
+     */
+    ShapeId claim(ShapeId id, String origin) {
+        String existing = origins.putIfAbsent(id, origin);
+        if (existing != null && !existing.equals(origin)) {
+            throw new RuntimeException("ECS names `" + existing + "` and `" + origin + "` both map to Smithy shape "
+                    + id);
+        }
+
+        return id;
+    }
+
+    /**
+     * @return the origin for which the given shape ID was claimed, if it was.
+     */
+    Optional<String> getOrigin(ShapeId id) {
+        return Optional.ofNullable(origins.get(id));
+    }
+
+    // Splits on whitespace, capitalizing the first character of each word and lowercasing the rest.
+    private static String capitalizeWords(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        boolean wordStart = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                wordStart = true;
+            } else {
+                builder.append(wordStart ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                wordStart = false;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    // Title-cases a nested key and replaces any character not valid in a shape name with an underscore.
+    private static String sanitizeSegment(String key) {
+        String titleCase = capitalizeWords(key);
+        StringBuilder builder = new StringBuilder(titleCase.length());
+        for (int i = 0; i < titleCase.length(); i++) {
+            char c = titleCase.charAt(i);
+            builder.append(isAsciiLetterOrDigit(c) ? c : '_');
+        }
+
+        return builder.toString();
+    }
+
+    // Splits on runs of characters other than ASCII letters and digits, capitalizing the first character of each part
+    // and lowercasing the rest.
+    private static String sanitizeIdentifier(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        boolean wordStart = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isAsciiLetterOrDigit(c)) {
+                builder.append(wordStart ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                wordStart = false;
+            } else {
+                wordStart = true;
+            }
+        }
+
+        if (builder.length() == 0) {
+            throw new RuntimeException("ECS name `" + value + "` contains no characters valid in a Smithy identifier");
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return isAsciiLetterOrDigit(c) || c == '_';
+    }
+}
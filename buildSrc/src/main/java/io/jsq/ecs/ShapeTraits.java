@@ -0,0 +1,126 @@
+package io.jsq.ecs;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.traits.Trait;
+
+/**
+ * The traits collected for a single shape while it is being converted.
+ *
+ * <p>Each {@link ToSmithyExtension} adds to, or replaces, traits in the same instance; the shape itself is built once
+ * after every extension has been applied.
+ */
+public final class ShapeTraits {
+    private final ShapeId id;
+    private final ShapeId target;
+    // Keyed by trait ID, as a single trait class, e.g., DynamicTrait, may represent many traits
+    private final Map<ShapeId, Trait> traits = new LinkedHashMap<>();
+
+    private ShapeTraits(ShapeId id, ShapeId target) {
+        this.id = Objects.requireNonNull(id);
+        this.target = target;
+    }
+
+    static ShapeTraits forStructure(ShapeId id) {
+        return new ShapeTraits(id, null);
+    }
+
+    static ShapeTraits forMember(ShapeId id, ShapeId target) {
+        return new ShapeTraits(id, Objects.requireNonNull(target));
+    }
+
+    /**
+     * @return the ID of the shape to which these traits will be applied.
+     */
+    public ShapeId getId() {
+        return id;
+    }
+
+    /**
+     * @return the name of the member to which these traits will be applied, if they are for a member.
+     */
+    public Optional<String> getMemberName() {
+        return id.getMember();
+    }
+
+    public boolean has(ShapeId traitId) {
+        return traits.containsKey(traitId);
+    }
+
+    /**
+     * Checks whether any trait is an instance of the given class.
+     */
+    public boolean has(Class<? extends Trait> traitType) {
+        return traits.values().stream().anyMatch(traitType::isInstance);
+    }
+
+    public Optional<Trait> get(ShapeId traitId) {
+        return Optional.ofNullable(traits.get(traitId));
+    }
+
+    /**
+     * Gets the first trait that is an instance of the given class.
+     */
+    public <T extends Trait> Optional<T> get(Class<T> traitType) {
+        return traits.values().stream().filter(traitType::isInstance).map(traitType::cast).findFirst();
+    }
+
+    /**
+     * Adds a trait, replacing any existing trait with the same ID.
+     */
+    public ShapeTraits add(Trait trait) {
+        traits.put(trait.toShapeId(), trait);
+        return this;
+    }
+
+    void remove(ShapeId traitId) {
+        traits.remove(traitId);
+    }
+
+    /**
+     * Removes every trait that is an instance of the given class.
+     */
+    void remove(Class<? extends Trait> traitType) {
+        traits.values().removeIf(traitType::isInstance);
+    }
+
+    public Collection<Trait> getAll() {
+        return Collections.unmodifiableCollection(traits.values());
+    }
+
+    /**
+     * Replaces every trait with those of a shape returned by a plugin's {@code updateXxx} method. Shapes are built
+     * from their traits alone, so a plugin that changed anything else, e.g., a member's target, is rejected rather
+     * than having the change silently dropped.
+     */
+    void replaceWith(Shape updated, ToSmithyExtension plugin) {
+        traits.clear();
+        updated.getAllTraits().values().forEach(this::add);
+        Shape rebuilt = target == null ? toStructureShape() : toMemberShape();
+        if (!updated.equals(rebuilt)) {
+            throw new RuntimeException(plugin.getClass().getName() + " changed " + id + " other than by adding, "
+                    + "replacing, or removing traits, which is not supported; override addStructureTraits or "
+                    + "addMemberTraits instead");
+        }
+    }
+
+    StructureShape toStructureShape() {
+        StructureShape.Builder builder = StructureShape.builder().id(id);
+        traits.values().forEach(builder::addTrait);
+        return builder.build();
+    }
+
+    MemberShape toMemberShape() {
+        MemberShape.Builder builder = MemberShape.builder().id(id).target(target);
+        traits.values().forEach(builder::addTrait);
+        return builder.build();
+    }
+}
@@ -0,0 +1,116 @@
+package io.jsq.ecs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+/**
+ * Writes a model as one Smithy JSON file per ECS fieldset.
+ *
+ * <p>Each shape is written to the file of the schema that produced it, and shapes that belong to no schema (i.e.,
+ * the root shape) are written to a shared prelude file. Shapes may target shapes in other files, so the files form a
+ * valid model only when assembled together.
+ *
+ * <p>Files whose contents would not change are left untouched, so that their timestamps remain stable for whatever
+ * consumes them, and only the files of fieldsets no longer in the model are deleted.
+ */
+final class ShardedModelWriter {
+    static final String PRELUDE_NAME = "prelude";
+
+    private final Model model;
+    private final Function<ShapeId, Optional<String>> owningSchema;
+    private final boolean pretty;
+
+    /**
+     * @param model the model to write.
+     * @param owningSchema a function returning the name of the schema to which a (non-member) shape belongs.
+     * @param pretty whether to indent the written JSON.
+     */
+    ShardedModelWriter(Model model, Function<ShapeId, Optional<String>> owningSchema, boolean pretty) {
+        this.model = model;
+        this.owningSchema = owningSchema;
+        this.pretty = pretty;
+    }
+
+    /**
+     * Writes each shard to its own file in the given directory, in parallel, replacing an existing file only if its
+     * contents differ, and deletes any other JSON file in the directory.
+     *
+     * @return the shard files, starting with the prelude and followed by each schema's file in name order.
+     */
+    List<Path> write(Path directory) {
+        // Each shape is assigned to its shard once, and each shard serializes only its own shapes
+        Map<String, List<Shape>> shards = new TreeMap<>();
+        shards.put(PRELUDE_NAME, new ArrayList<>());
+        model.getShapeIndex().shapes()
+                .filter(shape -> !shape.isMemberShape())
+                .forEach(shape -> {
+                    Optional<String> schema = owningSchema.apply(shape.getId());
+                    if (schema.filter(PRELUDE_NAME::equals).isPresent()) {
+                        throw new RuntimeException("A schema named `" + PRELUDE_NAME
+                                + "` conflicts with the model prelude");
+                    }
+                    shards.computeIfAbsent(schema.orElse(PRELUDE_NAME), k -> new ArrayList<>()).add(shape);
+                });
+
+        List<Path> files = new ArrayList<>(shards.size());
+        files.add(directory.resolve(PRELUDE_NAME + ".json"));
+        shards.keySet().stream()
+                .filter(shard -> !shard.equals(PRELUDE_NAME))
+                .forEach(shard -> files.add(directory.resolve(shard + ".json")));
+        shards.entrySet().parallelStream().forEach(shard -> writeIfChanged(
+                shard.getValue(), directory, shard.getKey() + ".json"));
+        deleteStaleShards(directory, files);
+
+        return files;
+    }
+
+    // Writes to a temporary file first so that an unchanged shard is never rewritten, nor a changed one left partial
+    private void writeIfChanged(List<Shape> shapes, Path directory, String fileName) {
+        Path file = directory.resolve(fileName);
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, fileName, ".tmp");
+            try {
+                StreamingModelWriter.write(model, shapes.stream(), temporary, pretty);
+                if (Files.isRegularFile(file)
+                        && Arrays.equals(Files.readAllBytes(file), Files.readAllBytes(temporary))) {
+                    return;
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write " + file, e);
+        }
+    }
+
+    private static void deleteStaleShards(Path directory, List<Path> shards) {
+        Set<Path> current = new HashSet<>(shards);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .filter(file -> !current.contains(file))
+                    .collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to delete stale shards from " + directory, e);
+        }
+    }
+}
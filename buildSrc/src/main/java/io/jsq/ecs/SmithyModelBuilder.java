@@ -4,17 +4,29 @@ import io.jsq.ecs.model.AllowedValue;
 import io.jsq.ecs.model.FieldSchema;
 import io.jsq.ecs.model.ReusabilityDeclaration;
 import io.jsq.ecs.model.Schema;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import software.amazon.smithy.model.Model;
@@ -25,8 +37,10 @@ import software.amazon.smithy.model.shapes.MapShape;
 import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeIndex;
 import software.amazon.smithy.model.shapes.StringShape;
 import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.traits.DocumentationTrait;
 import software.amazon.smithy.model.traits.EnumConstantBody;
 import software.amazon.smithy.model.traits.EnumTrait;
 import software.amazon.smithy.model.validation.ValidatedResult;
@@ -34,38 +48,118 @@ import software.amazon.smithy.utils.Pair;
 
 final class SmithyModelBuilder {
     private static final List<ToSmithyExtension> PLUGINS;
+    private static final String CONVERTER_FINGERPRINT;
 
     static {
         List<ToSmithyExtension> list = new ArrayList<>();
         ServiceLoader.load(ToSmithyExtension.class, SmithyModelBuilder.class.getClassLoader()).forEach(list::add);
         PLUGINS = Collections.unmodifiableList(list);
+
+        List<Class<?>> converterClasses = new ArrayList<>(Arrays.asList(
+                SmithyModelBuilder.class, ShapeNames.class, ShapeTraits.class, ToSmithyExtension.class));
+        converterClasses.addAll(Arrays.asList(SmithyModelBuilder.class.getDeclaredClasses()));
+        PLUGINS.forEach(plugin -> converterClasses.add(plugin.getClass()));
+        CONVERTER_FINGERPRINT = fingerprint(converterClasses);
     }
 
     private final String namespace;
     private final String rootShapeName;
+    private final boolean documented;
     private final ShapeId rootId;
-    private final Map<ShapeId, Shape> indexBuilder = new HashMap<>();
-    private final Map<Pair<String, ShapeId>, List<String>> reuseDirectives = new HashMap<>();
+    private final ShapeNames names;
+    private final ShapeShard shapes = new ShapeShard();
+    // Reuse directives are kept in the order in which their schemata were added so that reuse is applied
+    // deterministically
+    private final Map<Pair<String, ShapeId>, List<String>> reuseDirectives = new LinkedHashMap<>();
+    private final Map<ShapeId, String> owningSchemata = new HashMap<>();
 
     SmithyModelBuilder(String namespace, String rootShapeName) {
+        this(namespace, rootShapeName, true);
+    }
+
+    /**
+     * @param documented whether shapes and enum constants are documented. If false, any documentation trait added by
+     *                   an extension is removed.
+     */
+    SmithyModelBuilder(String namespace, String rootShapeName, boolean documented) {
         this.namespace = Objects.requireNonNull(namespace);
         this.rootShapeName = Objects.requireNonNull(rootShapeName);
-        rootId = ShapeId.fromParts(namespace, rootShapeName);
-        indexBuilder.put(rootId, StructureShape.builder().id(rootId).build());
+        this.documented = documented;
+        names = new ShapeNames(namespace);
+        rootId = names.shapeId(rootShapeName);
+        shapes.registerStructure(StructureShape.builder().id(rootId).build());
     }
 
     void addSchema(Schema schema) {
-        ShapeId shape = fromSchema(schema);
+        merge(schema, fromSchema(schema));
+    }
+
+    /**
+     * Converts each schema into its own shard of shapes on the common fork-join pool, then merges the shards in the
+     * order in which the schemata were given. The result is identical to adding each schema in turn.
+     */
+    void addSchemata(List<Schema> schemata) {
+        mergeAll(schemata, schemata.parallelStream()
+                .map(PhaseReport.propagate(this::fromSchema))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Adds schemata as {@link #addSchemata(List)} does, except that a schema for which {@code cached} returns the
+     * shapes of an earlier conversion, by a builder with the same {@link #getConfigurationKey() configuration}, is not
+     * converted again. Each schema that is converted is passed to {@code converted} along with its shapes, possibly
+     * concurrently.
+     */
+    void addSchemata(List<Schema> schemata, Function<Schema, Optional<ConvertedSchema>> cached,
+            BiConsumer<Schema, ConvertedSchema> converted) {
+        mergeAll(schemata, schemata.parallelStream()
+                .map(PhaseReport.propagate((Schema schema) -> cached.apply(schema)
+                        .map(shapes -> restore(schema, shapes))
+                        .orElseGet(() -> {
+                            ShapeShard shard = fromSchema(schema);
+                            converted.accept(schema, toConvertedSchema(shard));
+                            return shard;
+                        })))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns a key identifying everything besides a schema itself that affects the shapes into which it is
+     * converted: the namespace, the root shape name, whether shapes are documented, the extensions applied, and a
+     * fingerprint of the classes of the converter and of the extensions.
+     */
+    String getConfigurationKey() {
+        return namespace + "#" + rootShapeName + (documented ? "" : "!undocumented") + PLUGINS.stream()
+                .map(plugin -> plugin.getClass().getName())
+                .collect(Collectors.joining(",", "[", "]")) + "@" + CONVERTER_FINGERPRINT;
+    }
+
+    private void mergeAll(List<Schema> schemata, List<ShapeShard> shards) {
+        for (int i = 0; i < schemata.size(); i++) {
+            merge(schemata.get(i), shards.get(i));
+        }
+    }
+
+    private void merge(Schema schema, ShapeShard shard) {
+        try (Phase phase = Phase.start("merge-schema", schema.getName())) {
+            mergeShard(schema, shard);
+            phase.count(Phase.Counter.SHAPES, shard.size());
+        }
+    }
+
+    private void mergeShard(Schema schema, ShapeShard shard) {
+        shard.shapeIds().stream()
+                .filter(id -> !id.equals(rootId))
+                .forEach(id -> owningSchemata.putIfAbsent(id, schema.getName()));
+        shapes.mergeFrom(shard);
+        ShapeId shape = shard.schemaRoot;
 
         // If this schema does not describe the root shape and is not specifically excluded from being a member thereof,
         // add it as a member of the root structure
-        if (!schema.getRoot().orElse(false)
-                && schema.getReusable().map(ReusabilityDeclaration::getTopLevel).orElse(true)) {
-            indexBuilder.put(rootId, getRootShape().toBuilder()
-                    .addMember(MemberShape.builder()
-                            .target(shape)
-                            .id(rootId.withMember(schema.getName()))
-                            .build())
+        if (!schema.isRoot() && schema.isTopLevel()) {
+            shapes.addMember(rootId, MemberShape.builder()
+                    .target(shape)
+                    .id(rootId.withMember(schema.getName()))
                     .build());
         }
 
@@ -77,53 +171,190 @@ final class SmithyModelBuilder {
                 .ifPresent(reuses -> reuseDirectives.put(new Pair<>(schema.getName(), shape), reuses));
     }
 
+    /**
+     * Returns the name of the schema whose conversion first produced the shape with the given ID. The root shape
+     * belongs to no schema.
+     */
+    Optional<String> getOwningSchema(ShapeId id) {
+        return Optional.ofNullable(owningSchemata.get(id));
+    }
+
     ValidatedResult<Model> build() {
-        // Apply any reuse directive encountered from schemata
-        for (Map.Entry<Pair<String, ShapeId>, List<String>> entry : reuseDirectives.entrySet()) {
-            for (String keyOfReusingMember : entry.getValue()) {
-                StructureShape reUser = getRootShape();
-                for (String pathElement : keyOfReusingMember.split("\\.")) {
-                    reUser = reUser.getMember(pathElement)
-                        .map(MemberShape::getTarget)
-                        .map(indexBuilder::get)
-                        .flatMap(Shape::asStructureShape)
-                        .orElseThrow(() -> new RuntimeException(
-                                "Unable to reuse " + entry.getKey().getLeft() + " under key " + keyOfReusingMember));
+        ModelAssembler assembler = Model.assembler(getClass().getClassLoader());
+        List<Shape> built = buildShapes();
+        built.forEach(assembler::addShape);
+
+        try (Phase phase = Phase.start("assemble", "")) {
+            if (phase.isRecording()) {
+                phase.count(Phase.Counter.SHAPES, built.size())
+                        .count(Phase.Counter.MEMBERS, built.stream().mapToLong(shape -> shape.members().size()).sum());
+            }
+
+            return assembler.assemble();
+        }
+    }
+
+    /**
+     * Builds the model directly from the generated shapes and the Smithy prelude, without the validation performed by
+     * {@link #build()}. The shapes generated from ECS are well-formed by construction, so validation may be skipped
+     * or {@link ModelValidation run separately}.
+     */
+    Model buildUnvalidated() {
+        List<Shape> built = buildShapes();
+        try (Phase phase = Phase.start("index", "")) {
+            Model prelude = PreludeHolder.PRELUDE;
+            ShapeIndex.Builder index = ShapeIndex.builder();
+            prelude.getShapeIndex().shapes().forEach(index::addShape);
+            for (Shape shape : built) {
+                index.addShape(shape);
+                shape.members().forEach(index::addShape);
+            }
+            phase.count(Phase.Counter.SHAPES, built.size());
+
+            return prelude.toBuilder().shapeIndex(index.build()).build();
+        }
+    }
+
+    /**
+     * Applies all reuse directives and returns every shape generated so far without assembling or validating a model.
+     */
+    List<Shape> buildShapes() {
+        applyReuseDirectives();
+
+        return shapes.build();
+    }
+
+    void applyReuseDirectives() {
+        try (Phase phase = Phase.start("resolve-reuse", "")) {
+            for (Map.Entry<Pair<String, ShapeId>, List<String>> entry : orderReuseDirectives()) {
+                for (String keyOfReusingMember : entry.getValue()) {
+                    ShapeId reUser = resolveStructurePath(keyOfReusingMember)
+                            .orElseThrow(() -> new RuntimeException("Unable to reuse " + entry.getKey().getLeft()
+                                    + " under key " + keyOfReusingMember));
+
+                    shapes.addMember(reUser, MemberShape.builder()
+                            .target(entry.getKey().getRight())
+                            .id(reUser.withMember(entry.getKey().getLeft()))
+                            .build());
+                    phase.count(Phase.Counter.MEMBERS, 1);
                 }
+            }
+        }
+    }
 
-                indexBuilder.put(reUser.getId(), reUser.toBuilder()
-                        .addMember(MemberShape.builder()
-                                .target(entry.getKey().getRight())
-                                .id(reUser.getId().withMember(entry.getKey().getLeft()))
-                                .build())
-                        .build());
+    // A schema may be reused under a path that only exists once another schema has been reused, e.g., a schema
+    // expected under "client.user" requires that `user` first be reused under `client`. Directives are therefore
+    // applied in dependency order: a schema's reuses are applied only after those of every reusable schema named in
+    // its paths. Directives without dependencies on one another are applied in the order their schemata were added.
+    private List<Map.Entry<Pair<String, ShapeId>, List<String>>> orderReuseDirectives() {
+        Map<String, Map.Entry<Pair<String, ShapeId>, List<String>>> byName = new LinkedHashMap<>();
+        reuseDirectives.entrySet().forEach(entry -> byName.put(entry.getKey().getLeft(), entry));
+
+        Map<String, Integer> unresolvedDependencyCounts = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (Map.Entry<Pair<String, ShapeId>, List<String>> entry : byName.values()) {
+            String name = entry.getKey().getLeft();
+            Set<String> dependencies = new LinkedHashSet<>();
+            for (String path : entry.getValue()) {
+                List<String> pathElements = Arrays.asList(path.split("\\."));
+                pathElements.subList(1, pathElements.size()).stream()
+                        .filter(byName::containsKey)
+                        .filter(element -> !element.equals(name))
+                        .forEach(dependencies::add);
             }
+
+            unresolvedDependencyCounts.put(name, dependencies.size());
+            dependencies.forEach(dependency -> dependents.computeIfAbsent(dependency, k -> new ArrayList<>())
+                    .add(name));
         }
 
-        ModelAssembler assembler = Model.assembler(getClass().getClassLoader());
-        indexBuilder.values().forEach(assembler::addShape);
+        Deque<String> ready = byName.keySet().stream()
+                .filter(name -> unresolvedDependencyCounts.get(name) == 0)
+                .collect(Collectors.toCollection(ArrayDeque::new));
+        List<Map.Entry<Pair<String, ShapeId>, List<String>>> ordered = new ArrayList<>(byName.size());
+        while (!ready.isEmpty()) {
+            String name = ready.removeFirst();
+            ordered.add(byName.get(name));
+            for (String dependent : dependents.getOrDefault(name, Collections.emptyList())) {
+                if (unresolvedDependencyCounts.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.addLast(dependent);
+                }
+            }
+        }
+
+        if (ordered.size() < byName.size()) {
+            throw new RuntimeException("Reuse directives form a cycle among: " + byName.keySet().stream()
+                    .filter(name -> unresolvedDependencyCounts.get(name) > 0)
+                    .collect(Collectors.joining(", ")));
+        }
 
-        return assembler.assemble();
+        return ordered;
     }
 
-    private StructureShape getRootShape() {
-        return Optional.ofNullable(indexBuilder.get(rootId))
-                .flatMap(Shape::asStructureShape)
-                .orElseThrow(() -> new RuntimeException("Root shape not found. Was it deleted from the index?"));
+    // The member targets recorded for each structure form a trie of structure locations rooted at the root shape, so
+    // resolving a dotted path costs one lookup per path element.
+    private Optional<ShapeId> resolveStructurePath(String dottedPath) {
+        ShapeId current = rootId;
+        int start = 0;
+        while (current != null && start <= dottedPath.length()) {
+            int end = dottedPath.indexOf('.', start);
+            if (end < 0) {
+                end = dottedPath.length();
+            }
+
+            current = Optional.ofNullable(shapes.fetchStructureMembers(current).get(dottedPath.substring(start, end)))
+                    .map(MemberShape::getTarget)
+                    .filter(shapes::containsStructure)
+                    .orElse(null);
+            start = end + 1;
+        }
+
+        return Optional.ofNullable(current);
     }
 
-    private ShapeId fromSchema(Schema schema) {
-        final String shapeName = schema.getRoot()
-                .filter(Boolean::booleanValue)
-                .map(t -> rootShapeName)
-                .orElseGet(() -> titleCase(schema.getTitle()));
+    private ShapeShard fromSchema(Schema schema) {
+        try (Phase phase = Phase.start("convert-schema", schema.getName())) {
+            ShapeShard shard = toShard(schema);
+            phase.count(Phase.Counter.FIELDS, schema.getFields().map(List::size).orElse(0))
+                    .count(Phase.Counter.SHAPES, shard.size());
 
-        ShapeId schemaRoot = ShapeId.fromParts(namespace, shapeName);
-        indexBuilder.computeIfAbsent(schemaRoot, sid -> fromSchema(sid, schema));
+            return shard;
+        }
+    }
+
+    // Recreates the shard into which a schema was converted, claiming its shape IDs as the conversion did
+    private ShapeShard restore(Schema schema, ConvertedSchema converted) {
+        try (Phase phase = Phase.start("restore-schema", schema.getName())) {
+            converted.getClaims().forEach(names::claim);
+            ShapeShard shard = new ShapeShard(schemaRootId(schema));
+            converted.getShapes().forEach(shard::putShape);
+            phase.count(Phase.Counter.SHAPES, shard.size());
+
+            return shard;
+        }
+    }
+
+    private ConvertedSchema toConvertedSchema(ShapeShard shard) {
+        List<Shape> built = shard.build();
+        Map<ShapeId, String> claims = new TreeMap<>();
+        built.stream()
+                .flatMap(shape -> Stream.concat(Stream.of(shape), shape.members().stream()))
+                .forEach(shape -> names.getOrigin(shape.getId())
+                        .ifPresent(origin -> claims.put(shape.getId(), origin)));
+
+        return new ConvertedSchema(built, claims);
+    }
+
+    // Converts a schema into a shard containing every shape it defines. Only the shard and the thread-safe ShapeNames
+    // are modified, so schemata may be converted concurrently.
+    private ShapeShard toShard(Schema schema) {
+        ShapeId schemaRoot = schemaRootId(schema);
+        ShapeShard shard = new ShapeShard(schemaRoot);
+        shard.registerStructure(fromSchema(schemaRoot, schema));
 
         // ECS will refer to nested shapes within by using period delimited names, e.g., "response.body.bytes" under the
         // "http" schema. In the Smithy model, each intermediate shape needs to be represented as a distinct structure.
-        Map<List<String>, List<FieldSchema>> nested = schema.getFields().orElse(Collections.emptyList()).stream()
+        Map<List<String>, List<FieldSchema>> nested = schema.getFieldList().stream()
                 .map(fs -> {
                     List<String> keySequence = Arrays.asList(fs.getName().split("\\."));
                     return new Pair<>(keySequence.subList(0, keySequence.size() - 1),
@@ -135,24 +366,21 @@ final class SmithyModelBuilder {
         nested.entrySet().stream()
                 .sorted(Comparator.comparingInt(entry -> entry.getKey().size()))
                 // Ensure intermediate shapes exist and are properly linked
-                .peek(entry -> registerAndLinkIntermediateMembers(shapeName, entry.getKey()))
-                .map(entry -> fromFields(fetchStructureShape(composeShapeId(shapeName, entry.getKey())),
-                        entry.getValue()))
-                .forEach(composed -> indexBuilder.put(composed.getId(), composed));
+                .forEach(entry -> fromFields(shard,
+                        registerAndLinkIntermediateMembers(shard, schemaRoot, entry.getKey()), entry.getValue()));
 
-        return schemaRoot;
+        return shard;
     }
 
-    private ShapeId composeShapeId(String topLevelShapeName, List<String> intermediateNames) {
-        return ShapeId.fromParts(namespace,
-                Stream.concat(Stream.of(topLevelShapeName),
-                        intermediateNames.stream().map(SmithyModelBuilder::titleCase)
-                                .map(str -> str.replaceAll("[^a-zA-Z0-9]", "_")))
-                        .collect(Collectors.joining()));
+    private ShapeId schemaRootId(Schema schema) {
+        return names.shapeId(schema.getRoot()
+                .filter(Boolean::booleanValue)
+                .map(t -> rootShapeName)
+                .orElseGet(() -> names.titleCase(schema.getTitle())));
     }
 
     private Pair<ShapeId, Set<Shape>> fromFieldSchema(ShapeId id, FieldSchema fieldSchema) {
-        if (fieldSchema.getNormalize().map(n -> n.contains("array")).orElse(false)) {
+        if (fieldSchema.isArray()) {
             Pair<ShapeId, Set<Shape>> member = singularFromFieldSchema(id, fieldSchema);
             ShapeId targetId = ShapeId.fromParts(id.getNamespace(), id.getName() + "List");
             MemberShape memberShape = MemberShape.builder()
@@ -238,13 +466,14 @@ final class SmithyModelBuilder {
 
     private Shape enumShape(ShapeId id, List<AllowedValue> allowedValues) {
         EnumTrait.Builder enumBuilder = EnumTrait.builder();
-        allowedValues.forEach(value -> enumBuilder.addEnum(value.getName(), EnumConstantBody.builder()
-                .name(Arrays.stream(value.getName().split("\\W+"))
-                        .filter(str -> !str.isEmpty())
-                        .map(String::toUpperCase)
-                        .collect(Collectors.joining("_")))
-                .documentation(value.getDescription().trim())
-                .build()));
+        allowedValues.forEach(value -> {
+            EnumConstantBody.Builder constant = EnumConstantBody.builder()
+                    .name(ShapeNames.enumConstantName(value.getName()));
+            if (documented) {
+                constant.documentation(value.getDescription().trim());
+            }
+            enumBuilder.addEnum(value.getName(), constant.build());
+        });
 
         return StringShape.builder()
                 .id(id)
@@ -252,82 +481,229 @@ final class SmithyModelBuilder {
                 .build();
     }
 
-    private StructureShape fetchStructureShape(ShapeId id) {
-        return Optional.ofNullable(indexBuilder.get(id))
-                .flatMap(Shape::asStructureShape)
-                .orElseThrow(() -> new RuntimeException("Could not find a structure shape named " + id));
-    }
-
-    private void registerAndLinkIntermediateMembers(String shapeName, List<String> intermediateKeys) {
-        for (int i = 0; i < intermediateKeys.size(); i++) {
-            ShapeId shapeId = composeShapeId(shapeName, intermediateKeys.subList(0, i + 1));
-            indexBuilder.computeIfAbsent(shapeId, sid -> StructureShape.builder().id(sid).build());
+    private ShapeId registerAndLinkIntermediateMembers(
+            ShapeShard shard,
+            ShapeId schemaRoot,
+            List<String> intermediateKeys
+    ) {
+        ShapeId parentId = schemaRoot;
+        for (String intermediateKey : intermediateKeys) {
+            ShapeId shapeId = names.nestedShapeId(parentId, intermediateKey);
+            if (!shard.containsStructure(shapeId)) {
+                shard.registerStructure(StructureShape.builder().id(shapeId).build());
+            }
 
-            StructureShape parent = fetchStructureShape(composeShapeId(shapeName, intermediateKeys.subList(0, i)));
-            if (!parent.getMember(intermediateKeys.get(i)).isPresent()) {
-                indexBuilder.put(parent.getId(), parent.toBuilder()
-                        .addMember(MemberShape.builder()
-                                .target(shapeId)
-                                .id(parent.getId().withMember(intermediateKeys.get(i)))
-                                .build())
+            if (!shard.fetchStructureMembers(parentId).containsKey(intermediateKey)) {
+                shard.addMember(parentId, MemberShape.builder()
+                        .target(shapeId)
+                        .id(parentId.withMember(intermediateKey))
                         .build());
             }
+
+            parentId = shapeId;
         }
+
+        return parentId;
     }
 
-    private StructureShape fromFields(StructureShape target, List<FieldSchema> members) {
-        StructureShape.Builder builder = target.toBuilder();
+    private void fromFields(ShapeShard shard, ShapeId targetId, List<FieldSchema> members) {
         for (FieldSchema field : members) {
-            String sanitizedName = Arrays.stream(field.getName().split("[^a-zA-Z0-9]+"))
-                    .filter(str -> !str.isEmpty())
-                    .map(str -> str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase())
-                    .collect(Collectors.joining());
-            Pair<ShapeId, Set<Shape>> converted = fromFieldSchema(ShapeId.fromParts(target.getId().getNamespace(),
-                    target.getId().getName() + sanitizedName), field);
-            converted.getRight().forEach(s -> indexBuilder.put(s.getId(), s));
+            Pair<ShapeId, Set<Shape>> converted = fromFieldSchema(ShapeId.fromParts(targetId.getNamespace(),
+                    targetId.getName() + names.identifier(field.getName())), field);
+            String origin = targetId + "." + field.getName();
+            for (Shape shape : converted.getRight()) {
+                // The structure of an object field is the intermediate structure of any fields nested beneath it, so
+                // it shares the intermediate's origin; any other shape with an intermediate's ID is a collision
+                if (!shape.isMemberShape()) {
+                    names.claim(shape.getId(), shape.isStructureShape() && field.getType() == FieldSchema.Type.OBJECT
+                            ? origin
+                            : origin + " (" + shape.getType() + ")");
+                }
+                shard.putShape(shape);
+            }
 
-            builder.addMember(applyPlugins(
-                    MemberShape.builder()
-                            .target(converted.getLeft())
-                            .id(target.getId().withMember(
-                                    // ensure member name is lowerCamelCase
-                                    sanitizedName.substring(0, 1).toLowerCase() + sanitizedName.substring(1)))
-                            .build(),
-                    field));
+            // ensure member name is lowerCamelCase
+            ShapeId memberId = targetId.withMember(names.memberName(targetId, field.getName()));
+            shard.addMember(targetId, applyPlugins(ShapeTraits.forMember(memberId, converted.getLeft()), field));
         }
-
-        return builder.build();
     }
 
-    private static StructureShape applyPlugins(StructureShape structureShape, Schema schema) {
+    private StructureShape applyPlugins(ShapeTraits traits, Schema schema) {
         for (ToSmithyExtension plugin : PLUGINS) {
-            structureShape = plugin.updateStructureForSchema(structureShape, schema);
+            try (Phase phase = Phase.start("apply-extension", plugin.getClass().getSimpleName())) {
+                plugin.addStructureTraits(traits, schema);
+            }
+        }
+        if (!documented) {
+            traits.remove(DocumentationTrait.class);
         }
 
-        return structureShape;
+        return traits.toStructureShape();
     }
 
-    private static MemberShape applyPlugins(MemberShape memberShape, FieldSchema fieldSchema) {
+    private MemberShape applyPlugins(ShapeTraits traits, FieldSchema fieldSchema) {
         for (ToSmithyExtension plugin : PLUGINS) {
-            memberShape = plugin.updateMemberForField(memberShape, fieldSchema);
+            try (Phase phase = Phase.start("apply-extension", plugin.getClass().getSimpleName())) {
+                plugin.addMemberTraits(traits, fieldSchema);
+            }
+        }
+        if (!documented) {
+            traits.remove(DocumentationTrait.class);
         }
 
-        return memberShape;
+        return traits.toMemberShape();
     }
 
     private static Pair<ShapeId, Set<Shape>> forScalar(String shapeName) {
         return new Pair<>(ShapeId.fromParts(Prelude.NAMESPACE, shapeName), Collections.emptySet());
     }
 
-    private static StructureShape fromSchema(ShapeId id, Schema schema) {
-        return applyPlugins(StructureShape.builder().id(id).build(), schema);
+    private StructureShape fromSchema(ShapeId id, Schema schema) {
+        return applyPlugins(ShapeTraits.forStructure(id), schema);
+    }
+
+    // Hashes the class files of the given classes, so that a change to any of them, e.g., when buildSrc is recompiled,
+    // changes the configuration key
+    private static String fingerprint(List<Class<?>> classes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (Class<?> type : classes) {
+            try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+                // A class without a class file, e.g., one generated at runtime, contributes only its name
+                bytes.write((type.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+                if (in != null) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        bytes.write(buffer, 0, read);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read the class file of " + type.getName(), e);
+            }
+        }
+
+        return Loader.sha256(bytes.toByteArray());
+    }
+
+    /**
+     * The shapes into which a single schema was converted, along with the origin that {@link ShapeNames} recorded for
+     * each of their IDs, so that the schema can be added to a builder with the same configuration without converting
+     * it again.
+     */
+    static final class ConvertedSchema {
+        private final List<Shape> shapes;
+        private final Map<ShapeId, String> claims;
+
+        ConvertedSchema(List<Shape> shapes, Map<ShapeId, String> claims) {
+            this.shapes = shapes;
+            this.claims = claims;
+        }
+
+        /**
+         * @return the shapes, with every structure's members contained in the structure.
+         */
+        List<Shape> getShapes() {
+            return shapes;
+        }
+
+        Map<ShapeId, String> getClaims() {
+            return claims;
+        }
+    }
+
+    // The prelude is assembled, and validated, once, when a model is first built without validation
+    private static final class PreludeHolder {
+        private static final Model PRELUDE = Model.assembler(SmithyModelBuilder.class.getClassLoader())
+                .assemble()
+                .unwrap();
     }
 
-    private static String titleCase(String toCapitalize) {
-        return Stream.of(toCapitalize)
-                .flatMap(str -> Arrays.stream(toCapitalize.split("\\s+")))
-                .filter(str -> !str.isEmpty())
-                .map(str -> str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase())
-                .collect(Collectors.joining());
+    /**
+     * A set of shapes under construction, either those generated for a single schema or those merged from every
+     * schema added so far.
+     */
+    private static final class ShapeShard {
+        private final ShapeId schemaRoot;
+        private final Map<ShapeId, Shape> shapes = new HashMap<>();
+        // Structures are kept as mutable builders until the final build step so that adding a member does not
+        // require rebuilding the structure and all of its existing members. The members are tracked alongside each
+        // builder so that structures can be traversed and merged before they are built.
+        private final Map<ShapeId, StructureShape.Builder> structureBuilders = new HashMap<>();
+        private final Map<ShapeId, Map<String, MemberShape>> structureMembers = new HashMap<>();
+
+        ShapeShard() {
+            this(null);
+        }
+
+        ShapeShard(ShapeId schemaRoot) {
+            this.schemaRoot = schemaRoot;
+        }
+
+        int size() {
+            return shapes.size() + structureBuilders.size();
+        }
+
+        Set<ShapeId> shapeIds() {
+            Set<ShapeId> ids = new HashSet<>(shapes.keySet());
+            ids.addAll(structureBuilders.keySet());
+            return ids;
+        }
+
+        boolean containsStructure(ShapeId id) {
+            return structureBuilders.containsKey(id);
+        }
+
+        void registerStructure(StructureShape structure) {
+            Map<String, MemberShape> members = new LinkedHashMap<>(structure.getAllMembers());
+            structureBuilders.put(structure.getId(), structure.toBuilder());
+            structureMembers.put(structure.getId(), members);
+        }
+
+        void addMember(ShapeId structureId, MemberShape member) {
+            fetchStructureBuilder(structureId).addMember(member);
+            fetchStructureMembers(structureId).put(member.getMemberName(), member);
+        }
+
+        void putShape(Shape shape) {
+            if (shape.isStructureShape()) {
+                if (!containsStructure(shape.getId())) {
+                    registerStructure(shape.asStructureShape().get());
+                }
+            } else {
+                shapes.put(shape.getId(), shape);
+            }
+        }
+
+        // Structures already present keep their own traits and gain the members of the other shard's structure,
+        // exactly as if the other shard's shapes had been added to this one individually.
+        void mergeFrom(ShapeShard other) {
+            shapes.putAll(other.shapes);
+            other.structureBuilders.forEach((id, builder) -> {
+                if (containsStructure(id)) {
+                    other.structureMembers.get(id).values().forEach(member -> addMember(id, member));
+                } else {
+                    structureBuilders.put(id, builder);
+                    structureMembers.put(id, other.structureMembers.get(id));
+                }
+            });
+        }
+
+        StructureShape.Builder fetchStructureBuilder(ShapeId id) {
+            return Optional.ofNullable(structureBuilders.get(id))
+                    .orElseThrow(() -> new RuntimeException("Could not find a structure shape named " + id));
+        }
+
+        Map<String, MemberShape> fetchStructureMembers(ShapeId id) {
+            return Optional.ofNullable(structureMembers.get(id))
+                    .orElseThrow(() -> new RuntimeException("Could not find a structure shape named " + id));
+        }
+
+        List<Shape> build() {
+            List<Shape> built = new ArrayList<>(shapes.size() + structureBuilders.size());
+            built.addAll(shapes.values());
+            structureBuilders.values().stream().map(StructureShape.Builder::build).forEach(built::add);
+
+            return built;
+        }
     }
 }
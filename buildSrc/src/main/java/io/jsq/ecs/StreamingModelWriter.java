@@ -0,0 +1,186 @@
+package io.jsq.ecs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.loader.Prelude;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.StringNode;
+import software.amazon.smithy.model.shapes.ModelSerializer;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeIndex;
+
+/**
+ * Writes a model, or some of its shapes, as Smithy JSON one shape at a time.
+ *
+ * <p>Each shape is serialized on its own with {@link ModelSerializer}, written, and discarded, so the memory needed to
+ * write a model is bounded by its largest shape rather than by the size of its JSON representation. The documents
+ * serialized for each shape, and finally for the model's metadata, are merged as they are written: objects present in
+ * more than one document, such as the enclosing namespace, are written once and left open until a sibling follows.
+ * Shapes are written in shape ID order so that the shapes of each namespace are contiguous.
+ */
+final class StreamingModelWriter {
+    private static final ModelSerializer SERIALIZER = ModelSerializer.builder().build();
+
+    private final Writer writer;
+    private final boolean pretty;
+    private final List<OpenObject> open = new ArrayList<>();
+
+    private StreamingModelWriter(Writer writer, boolean pretty) {
+        this.writer = writer;
+        this.pretty = pretty;
+    }
+
+    /**
+     * Writes every shape in a model, except those of the Smithy prelude, as {@link ModelSerializer} would.
+     *
+     * @return the number of shapes written, not counting members.
+     */
+    static int write(Model model, Path file, boolean pretty) {
+        return write(model, model.getShapeIndex().shapes(), file, pretty);
+    }
+
+    /**
+     * Writes the given shapes, along with the model's metadata, as UTF-8 encoded JSON followed by a line separator to
+     * the given file, creating its parent directories if necessary. Members are written with their containers, so
+     * member shapes given are ignored.
+     *
+     * @return the number of shapes written, not counting members.
+     */
+    static int write(Model model, Stream<Shape> shapes, Path file, boolean pretty) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                int written = new StreamingModelWriter(writer, pretty).writeModel(model, shapes);
+                writer.write(System.lineSeparator());
+
+                return written;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Unable to write " + file, e);
+        }
+    }
+
+    private int writeModel(Model model, Stream<Shape> shapes) {
+        append("{");
+        open.add(new OpenObject("", 1));
+        int[] written = new int[1];
+        shapes.filter(shape -> !shape.isMemberShape() && !Prelude.isPreludeShape(shape.getId()))
+                .sorted(Comparator.comparing(shape -> shape.getId().toString()))
+                .forEach(shape -> {
+                    ShapeIndex.Builder index = ShapeIndex.builder().addShape(shape);
+                    shape.members().forEach(index::addShape);
+                    merge(0, SERIALIZER.serialize(Model.builder().shapeIndex(index.build()).build()));
+                    written[0]++;
+                });
+        merge(0, SERIALIZER.serialize(model.toBuilder().shapeIndex(ShapeIndex.builder().build()).build()));
+        closeAbove(-1);
+
+        return written[0];
+    }
+
+    // Merges an object into the open object at the given level. An object still open at the next level is merged into.
+    // Keys already written at this level are skipped if their values are identical or, for objects, empty.
+    private void merge(int level, ObjectNode node) {
+        for (Map.Entry<StringNode, Node> member : node.getMembers().entrySet()) {
+            String key = member.getKey().getValue();
+            Node value = member.getValue();
+            OpenObject object = open.get(level);
+            if (level + 1 < open.size() && open.get(level + 1).key.equals(key) && value.isObjectNode()) {
+                merge(level + 1, value.expectObjectNode());
+            } else if (object.written.containsKey(key)) {
+                boolean redundant = value.isObjectNode() ? isEmpty(value) : value.equals(object.written.get(key));
+                if (!redundant) {
+                    throw new RuntimeException("Unable to merge the serialized model: `" + key
+                            + "` would be written twice");
+                }
+            } else {
+                closeAbove(level);
+                writeKey(object, key);
+                if (value.isObjectNode()) {
+                    object.written.put(key, null);
+                    append("{");
+                    open.add(new OpenObject(key, object.depth + 1));
+                    merge(level + 1, value.expectObjectNode());
+                } else {
+                    object.written.put(key, value);
+                    writeNode(value, object.depth);
+                }
+            }
+        }
+    }
+
+    // Checks whether an object contains nothing but, possibly, other empty objects
+    private static boolean isEmpty(Node node) {
+        return node.expectObjectNode().getMembers().values().stream()
+                .allMatch(value -> value.isObjectNode() && isEmpty(value));
+    }
+
+    // Closes every open object nested deeper than the given level
+    private void closeAbove(int level) {
+        while (open.size() > level + 1) {
+            OpenObject object = open.remove(open.size() - 1);
+            if (!object.written.isEmpty()) {
+                newLine(object.depth - 1);
+            }
+            append("}");
+        }
+    }
+
+    private void writeKey(OpenObject object, String key) {
+        if (!object.written.isEmpty()) {
+            append(",");
+        }
+        newLine(object.depth);
+        writeNode(Node.from(key), 0);
+        append(pretty ? ": " : ":");
+    }
+
+    private void writeNode(Node node, int depth) {
+        try {
+            JsonNodeWriter.write(node, writer, pretty, depth);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void newLine(int depth) {
+        if (pretty) {
+            append("\n");
+            for (int i = 0; i < depth; i++) {
+                append("    ");
+            }
+        }
+    }
+
+    private void append(String value) {
+        try {
+            writer.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class OpenObject {
+        private final String key;
+        private final int depth;
+        // Scalar and array values are kept to recognize identical repetitions; objects map to null
+        private final Map<String, Node> written = new HashMap<>();
+
+        OpenObject(String key, int depth) {
+            this.key = key;
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.jsq.ecs;
+
+import io.jsq.ecs.model.AllowedValue;
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.ReusabilityDeclaration;
+import io.jsq.ecs.model.Schema;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates valid, ECS-style schemata of arbitrary size for scale testing and benchmarking.
+ *
+ * <p>Generation is deterministic for a given configuration and seed. The first {@code reusableFieldsets} fieldsets
+ * are marked as reusable (and not top-level), and each is expected under {@code reuseFanOut} of the remaining
+ * fieldsets.
+ */
+final class SyntheticSchemaGenerator {
+    private static final FieldSchema.Type[] SCALAR_TYPES = {
+            FieldSchema.Type.KEYWORD,
+            FieldSchema.Type.TEXT,
+            FieldSchema.Type.IP,
+            FieldSchema.Type.DATE,
+            FieldSchema.Type.BOOLEAN,
+            FieldSchema.Type.LONG,
+            FieldSchema.Type.INTEGER,
+            FieldSchema.Type.FLOAT,
+            FieldSchema.Type.GEO_POINT,
+            FieldSchema.Type.OBJECT
+    };
+
+    private final int fieldsets;
+    private final int fieldsPerSet;
+    private final int depth;
+    private final int pathBranching;
+    private final int allowedValues;
+    private final double enumRatio;
+    private final double arrayRatio;
+    private final int reusableFieldsets;
+    private final int reuseFanOut;
+    private final long seed;
+
+    private SyntheticSchemaGenerator(Builder builder) {
+        fieldsets = builder.fieldsets;
+        fieldsPerSet = builder.fieldsPerSet;
+        depth = builder.depth;
+        pathBranching = builder.pathBranching;
+        allowedValues = builder.allowedValues;
+        enumRatio = builder.enumRatio;
+        arrayRatio = builder.arrayRatio;
+        reusableFieldsets = builder.reusableFieldsets;
+        reuseFanOut = builder.reuseFanOut;
+        seed = builder.seed;
+
+        if (reusableFieldsets > fieldsets) {
+            throw new IllegalArgumentException("Cannot mark more fieldsets as reusable than will be generated");
+        }
+        if (reusableFieldsets > 0 && reuseFanOut > fieldsets - reusableFieldsets) {
+            throw new IllegalArgumentException("Reuse fan-out exceeds the number of top-level fieldsets");
+        }
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    List<Schema> generate() {
+        Random random = new Random(seed);
+        List<Schema> schemata = new ArrayList<>(fieldsets);
+        for (int i = 0; i < fieldsets; i++) {
+            schemata.add(generateFieldset(i, random));
+        }
+
+        return schemata;
+    }
+
+    private Schema generateFieldset(int index, Random random) {
+        List<FieldSchema> fields = new ArrayList<>(fieldsPerSet);
+        for (int i = 0; i < fieldsPerSet; i++) {
+            fields.add(generateField(i, random));
+        }
+
+        Schema.Builder builder = Schema.builder()
+                .name(fieldsetName(index))
+                .title("Synthetic " + index)
+                .description("Synthetic fieldset " + index + ".")
+                .type(Schema.SchemaType.group)
+                .fields(fields);
+
+        if (index < reusableFieldsets) {
+            List<String> expected = new ArrayList<>(reuseFanOut);
+            for (int i = 0; i < reuseFanOut; i++) {
+                expected.add(fieldsetName(reusableFieldsets + (index + i) % (fieldsets - reusableFieldsets)));
+            }
+            builder.reusable(ReusabilityDeclaration.builder()
+                    .topLevel(false)
+                    .expected(expected)
+                    .build());
+        }
+
+        return builder.build();
+    }
+
+    private FieldSchema generateField(int index, Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int level = 0; level < depth; level++) {
+            name.append("group").append(level).append('x').append(random.nextInt(pathBranching)).append('.');
+        }
+        name.append("field").append(index);
+
+        FieldSchema.Type type = SCALAR_TYPES[random.nextInt(SCALAR_TYPES.length)];
+        FieldSchema.Builder builder = FieldSchema.builder()
+                .name(name.toString())
+                .type(type)
+                .level(random.nextBoolean() ? FieldSchema.Level.CORE : FieldSchema.Level.EXTENDED)
+                .description("Synthetic field " + index + ".");
+
+        if (type == FieldSchema.Type.OBJECT) {
+            builder.objectType(FieldSchema.Type.KEYWORD);
+        }
+        if (type == FieldSchema.Type.KEYWORD && allowedValues > 0 && random.nextDouble() < enumRatio) {
+            List<AllowedValue> values = new ArrayList<>(allowedValues);
+            for (int i = 0; i < allowedValues; i++) {
+                values.add(AllowedValue.builder()
+                        .name("value" + i)
+                        .description("Synthetic allowed value " + i + ".")
+                        .build());
+            }
+            builder.allowedValues(values);
+        }
+        if (random.nextDouble() < arrayRatio) {
+            builder.normalize(Collections.singletonList("array"));
+        }
+
+        return builder.build();
+    }
+
+    private static String fieldsetName(int index) {
+        return "synthetic" + index;
+    }
+
+    static final class Builder {
+        private int fieldsets = 40;
+        private int fieldsPerSet = 25;
+        private int depth = 1;
+        private int pathBranching = 4;
+        private int allowedValues = 0;
+        private double enumRatio = 0;
+        private double arrayRatio = 0;
+        private int reusableFieldsets = 0;
+        private int reuseFanOut = 0;
+        private long seed = 0;
+
+        Builder fieldsets(int fieldsets) {
+            this.fieldsets = fieldsets;
+            return this;
+        }
+
+        Builder fieldsPerSet(int fieldsPerSet) {
+            this.fieldsPerSet = fieldsPerSet;
+            return this;
+        }
+
+        /**
+         * The number of intermediate keys preceding each field name, e.g., a depth of 2 yields names like
+         * {@code group0x1.group1x3.field7}.
+         */
+        Builder depth(int depth) {
+            this.depth = depth;
+            return this;
+        }
+
+        /**
+         * The number of distinct intermediate keys at each level of a dotted path.
+         */
+        Builder pathBranching(int pathBranching) {
+            this.pathBranching = pathBranching;
+            return this;
+        }
+
+        Builder allowedValues(int allowedValues) {
+            this.allowedValues = allowedValues;
+            return this;
+        }
+
+        /**
+         * The fraction of keyword fields that declare {@code allowed_values}.
+         */
+        Builder enumRatio(double enumRatio) {
+            this.enumRatio = enumRatio;
+            return this;
+        }
+
+        /**
+         * The fraction of fields normalized as arrays.
+         */
+        Builder arrayRatio(double arrayRatio) {
+            this.arrayRatio = arrayRatio;
+            return this;
+        }
+
+        Builder reusableFieldsets(int reusableFieldsets) {
+            this.reusableFieldsets = reusableFieldsets;
+            return this;
+        }
+
+        Builder reuseFanOut(int reuseFanOut) {
+            this.reuseFanOut = reuseFanOut;
+            return this;
+        }
+
+        Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        SyntheticSchemaGenerator build() {
+            return new SyntheticSchemaGenerator(this);
+        }
+    }
+}
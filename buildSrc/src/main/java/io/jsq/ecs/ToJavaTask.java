@@ -0,0 +1,115 @@
+package io.jsq.ecs;
+
+import java.io.File;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+/**
+ * Generates Java value classes and streaming JSON serializers for the root shape of a Smithy model and every
+ * structure reachable from it. See {@link JavaBindingGenerator} for the shape of the generated code, which requires
+ * only {@code jackson-core} at runtime.
+ */
+@CacheableTask
+public class ToJavaTask extends DefaultTask {
+    private String modelPath;
+    private String targetDirectoryPath;
+    private String namespace;
+    private String rootShapeName;
+    private String packageName;
+
+    @Internal
+    public String getModelPath() {
+        return modelPath;
+    }
+
+    /**
+     * Sets the location of the Smithy model from which classes are generated, either a single file or a directory of
+     * model files such as the shard directory written by {@link ToSmithyTask}.
+     */
+    public void setModelPath(String modelPath) {
+        this.modelPath = modelPath;
+    }
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getModelFiles() {
+        return getProject().files(modelPath);
+    }
+
+    @Internal
+    public String getTargetDirectoryPath() {
+        return targetDirectoryPath;
+    }
+
+    /**
+     * Sets the source root into which the generated classes are written. Any other files in the directory are
+     * removed.
+     */
+    public void setTargetDirectoryPath(String targetDirectoryPath) {
+        this.targetDirectoryPath = targetDirectoryPath;
+    }
+
+    @OutputDirectory
+    public File getTargetDirectory() {
+        return getProject().file(targetDirectoryPath);
+    }
+
+    @Input
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    @Input
+    public String getRootShapeName() {
+        return rootShapeName;
+    }
+
+    public void setRootShapeName(String rootShapeName) {
+        this.rootShapeName = rootShapeName;
+    }
+
+    @Input
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public void setPackageName(String packageName) {
+        this.packageName = packageName;
+    }
+
+    /**
+     * The classpath from which the generator is read.
+     */
+    @Classpath
+    public FileCollection getPluginClasspath() {
+        return getProject().files(ToJavaTask.class.getProtectionDomain().getCodeSource().getLocation());
+    }
+
+    @TaskAction
+    public void generateJavaBindings() {
+        Model model = Model.assembler(getClass().getClassLoader())
+                .addImport(getProject().file(modelPath).toPath())
+                .assemble()
+                .unwrap();
+
+        File targetDirectory = getTargetDirectory();
+        getProject().delete(targetDirectory);
+        new JavaBindingGenerator(model, ShapeId.fromParts(namespace, rootShapeName), packageName)
+                .write(targetDirectory.toPath());
+    }
+}
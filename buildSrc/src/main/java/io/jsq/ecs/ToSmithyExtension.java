@@ -7,8 +7,32 @@ import software.amazon.smithy.model.shapes.StructureShape;
 
 /**
  * Represents a plugin for the Elastic Common Schema -> Smithy converter that affects the converted Smithy shape.
+ *
+ * <p>Plugins should contribute traits by overriding {@link #addStructureTraits} and {@link #addMemberTraits}, which
+ * operate on the traits collected for a shape before it is built. Plugins that instead override
+ * {@link #updateStructureForSchema} or {@link #updateMemberForField} continue to work, but require the shape to be
+ * built and copied for each such plugin, and may change only the traits of the shape they are given.
+ *
+ * <p>A single instance of each plugin is shared by every schema, and schemata may be converted concurrently, so
+ * implementations must be thread-safe.
  */
 public interface ToSmithyExtension {
+    default void addStructureTraits(ShapeTraits traits, Schema schema) {
+        StructureShape original = traits.toStructureShape();
+        StructureShape updated = updateStructureForSchema(original, schema);
+        if (updated != original) {
+            traits.replaceWith(updated, this);
+        }
+    }
+
+    default void addMemberTraits(ShapeTraits traits, FieldSchema fieldSchema) {
+        MemberShape original = traits.toMemberShape();
+        MemberShape updated = updateMemberForField(original, fieldSchema);
+        if (updated != original) {
+            traits.replaceWith(updated, this);
+        }
+    }
+
     default StructureShape updateStructureForSchema(StructureShape structureShape, Schema schema) {
         return structureShape;
     }
@@ -7,5 +7,6 @@ public final class ToSmithyPlugin implements Plugin<Project> {
     @Override
     public void apply(Project project) {
         project.getTasks().create("writeModel", ToSmithyTask.class);
+        project.getTasks().create("writeJavaBindings", ToJavaTask.class);
     }
 }
@@ -1,29 +1,117 @@
 package io.jsq.ecs;
 
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
+import io.jsq.ecs.model.Schema;
+import java.io.File;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
-import software.amazon.smithy.model.node.Node;
-import software.amazon.smithy.model.shapes.ModelSerializer;
+import software.amazon.smithy.model.Model;
 
+/**
+ * Converts the Elastic Common Schema definitions bundled with this plugin into a Smithy JSON model.
+ *
+ * <p>The ECS YAML files and the {@link ToSmithyExtension} implementations applied to them are loaded from the
+ * plugin's own classpath, so both are declared as task inputs alongside the namespace and root shape name. This
+ * allows Gradle to skip the task when nothing has changed and to restore its outputs from the build cache.
+ */
+@CacheableTask
 public class ToSmithyTask extends DefaultTask {
+    // Kept for as long as buildSrc's class loader, which is replaced whenever buildSrc, including the ECS YAML it
+    // bundles, changes
+    private static final Map<String, ModelValidation> INCREMENTAL_VALIDATIONS = new ConcurrentHashMap<>();
+
     private String targetPath;
+    private String shardDirectoryPath;
+    private String manifestPath;
     private String namespace;
     private String rootShapeName;
+    private boolean prettyPrint = true;
+    private String indexTemplatePath;
+    private List<String> indexPatterns = Collections.singletonList("ecs-*");
+    private Integer indexTemplatePriority;
+    private Set<String> indexTemplateProfiles = Collections.emptySet();
+    private String modelProfileDirectoryPath;
+    private String phaseReportPath;
+    private String validation = ModelValidation.Mode.FULL.getModeName();
+    private Map<String, List<String>> modelProfiles = Collections.emptyMap();
 
+    @Internal
     public String getTargetPath() {
         return targetPath;
     }
 
+    /**
+     * Sets the location of a single Smithy JSON file containing the entire generated model. Mutually exclusive with
+     * {@link #setShardDirectoryPath the shard directory path}.
+     */
     public void setTargetPath(String targetPath) {
         this.targetPath = targetPath;
     }
 
+    @Optional
+    @OutputFile
+    public File getTargetFile() {
+        return targetPath == null ? null : getProject().file(targetPath);
+    }
+
+    @Internal
+    public String getShardDirectoryPath() {
+        return shardDirectoryPath;
+    }
+
+    /**
+     * Sets a directory into which the generated model is written as one Smithy JSON file per ECS fieldset, plus a
+     * prelude file containing the root shape. Any other files in the directory are removed. Mutually exclusive with
+     * {@link #setTargetPath the target path}, as the manifest would otherwise define every shape twice.
+     */
+    public void setShardDirectoryPath(String shardDirectoryPath) {
+        this.shardDirectoryPath = shardDirectoryPath;
+    }
+
+    @Optional
+    @OutputDirectory
+    public File getShardDirectory() {
+        return shardDirectoryPath == null ? null : getProject().file(shardDirectoryPath);
+    }
+
+    @Internal
+    public String getManifestPath() {
+        return manifestPath;
+    }
+
+    /**
+     * Sets the location of a Smithy manifest listing every generated model file. No manifest is written if this is
+     * unset.
+     */
+    public void setManifestPath(String manifestPath) {
+        this.manifestPath = manifestPath;
+    }
+
+    @Optional
+    @OutputFile
+    public File getManifestFile() {
+        return manifestPath == null ? null : getProject().file(manifestPath);
+    }
+
+    @Input
     public String getNamespace() {
         return namespace;
     }
@@ -32,6 +120,7 @@ public class ToSmithyTask extends DefaultTask {
         this.namespace = namespace;
     }
 
+    @Input
     public String getRootShapeName() {
         return rootShapeName;
     }
@@ -40,18 +129,299 @@ public class ToSmithyTask extends DefaultTask {
         this.rootShapeName = rootShapeName;
     }
 
+    @Input
+    public boolean getPrettyPrint() {
+        return prettyPrint;
+    }
+
+    /**
+     * Sets whether the model is indented for readability (the default) or written without insignificant whitespace.
+     */
+    public void setPrettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+    }
+
+    @Internal
+    public String getIndexTemplatePath() {
+        return indexTemplatePath;
+    }
+
+    /**
+     * Sets the location of an Elasticsearch composable index template mapping every ECS field. No template is
+     * written if this is unset.
+     */
+    public void setIndexTemplatePath(String indexTemplatePath) {
+        this.indexTemplatePath = indexTemplatePath;
+    }
+
+    @Optional
+    @OutputFile
+    public File getIndexTemplateFile() {
+        return indexTemplatePath == null ? null : getProject().file(indexTemplatePath);
+    }
+
+    @Input
+    public List<String> getIndexPatterns() {
+        return indexPatterns;
+    }
+
+    /**
+     * Sets the index patterns to which the index template applies, {@code ecs-*} by default.
+     */
+    public void setIndexPatterns(List<String> indexPatterns) {
+        this.indexPatterns = indexPatterns;
+    }
+
+    @Optional
+    @Input
+    public Integer getIndexTemplatePriority() {
+        return indexTemplatePriority;
+    }
+
+    public void setIndexTemplatePriority(Integer indexTemplatePriority) {
+        this.indexTemplatePriority = indexTemplatePriority;
+    }
+
+    @Input
+    public Set<String> getIndexTemplateProfiles() {
+        return indexTemplateProfiles;
+    }
+
+    /**
+     * Sets the profiles applied to the index template's mappings, e.g., {@code core-only}, {@code no-norms}, or
+     * {@code no-multi-fields}.
+     */
+    public void setIndexTemplateProfiles(Set<String> indexTemplateProfiles) {
+        this.indexTemplateProfiles = indexTemplateProfiles;
+    }
+
+    @Internal
+    public String getModelProfileDirectoryPath() {
+        return modelProfileDirectoryPath;
+    }
+
+    /**
+     * Sets a directory into which a separate Smithy JSON file named after each {@link #setModelProfiles model profile}
+     * is written. Any other files in the directory are removed.
+     */
+    public void setModelProfileDirectoryPath(String modelProfileDirectoryPath) {
+        this.modelProfileDirectoryPath = modelProfileDirectoryPath;
+    }
+
+    @Optional
+    @OutputDirectory
+    public File getModelProfileDirectory() {
+        return modelProfileDirectoryPath == null ? null : getProject().file(modelProfileDirectoryPath);
+    }
+
+    @Input
+    public Map<String, List<String>> getModelProfiles() {
+        return modelProfiles;
+    }
+
+    /**
+     * Sets the directives of each model profile, keyed by profile name, e.g., {@code core-only}, {@code indexed-only},
+     * {@code no-documentation}, or {@code exclude-fieldsets=dns,tls}. Profile models are not listed in the manifest.
+     *
+     * @see ModelProfile
+     */
+    public void setModelProfiles(Map<String, List<String>> modelProfiles) {
+        this.modelProfiles = modelProfiles;
+    }
+
+    @Input
+    public String getValidation() {
+        return validation;
+    }
+
+    /**
+     * Sets how generated models are validated: {@code full} (the default) assembles each model with Smithy's model
+     * assembler; {@code concurrent} builds each model without validation and then runs Smithy's built-in validators
+     * concurrently; {@code incremental} does the same, but when only the traits of existing shapes changed since the
+     * model was last generated by the same Gradle daemon, revalidates only the shapes affected; and {@code none} skips
+     * validation entirely. The state kept by {@code incremental} is lost whenever buildSrc is recompiled, which
+     * includes every change to the bundled ECS YAML, so it only helps when the task reruns for other reasons, e.g., a
+     * changed extension classpath. Prefer {@code concurrent} otherwise.
+     */
+    public void setValidation(String validation) {
+        this.validation = validation;
+    }
+
+    @Internal
+    public String getPhaseReportPath() {
+        return phaseReportPath;
+    }
+
+    /**
+     * Sets the location of a JSON report of the time spent in each phase of generation, along with the number of
+     * files, fields, shapes, and members processed and bytes written. No report is written if this is unset, and none
+     * is written when the task's outputs are restored from the build cache. The same phases are always emitted as JFR
+     * events named {@code io.jsq.ecs.Phase} while a flight recording is running.
+     */
+    public void setPhaseReportPath(String phaseReportPath) {
+        this.phaseReportPath = phaseReportPath;
+    }
+
+    @Internal
+    public File getPhaseReportFile() {
+        return phaseReportPath == null ? null : getProject().file(phaseReportPath);
+    }
+
+    /**
+     * The content hash of the ECS manifest and of each schema file it lists.
+     */
+    @Input
+    public Map<String, String> getSchemaFingerprints() {
+        return Loader.fingerprintSchemata();
+    }
+
+    /**
+     * The classpath from which the converter, the bundled schemata, and any service-loaded extensions are read.
+     */
+    @Classpath
+    public FileCollection getPluginClasspath() {
+        return getProject().files(ToSmithyTask.class.getProtectionDomain().getCodeSource().getLocation());
+    }
+
     @TaskAction
     public void generateSmithyModelForEcs() {
+        File phaseReportFile = getPhaseReportFile();
+        if (phaseReportFile == null) {
+            generate();
+            return;
+        }
+
+        PhaseReport report = PhaseReport.start();
+        try {
+            generate();
+        } finally {
+            report.stop();
+            report.write(phaseReportFile.toPath());
+        }
+    }
+
+    private void generate() {
+        File targetFile = getTargetFile();
+        File shardDirectory = getShardDirectory();
+        if (targetFile == null && shardDirectory == null) {
+            throw new RuntimeException("Either a target path or a shard directory path must be set");
+        }
+        if (targetFile != null && shardDirectory != null) {
+            throw new RuntimeException("Only one of a target path and a shard directory path may be set");
+        }
+
         SmithyModelBuilder builder = new SmithyModelBuilder(namespace, rootShapeName);
-        Loader.loadSchemata().forEach(builder::addSchema);
-        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
-                new FileOutputStream(targetPath), StandardCharsets.UTF_8))) {
-            writer.write(Node.prettyPrintJson(
-                    ModelSerializer.builder().build().serialize(builder.build().unwrap()))
-                    .trim());
-            writer.write(System.lineSeparator());
+        List<Schema> schemata;
+        try (Phase phase = Phase.start("load-schemata", "")) {
+            schemata = new FragmentCache(new File(getTemporaryDir(), "fragments").toPath()).addSchemata(builder);
+        }
+        Model model = buildModel(builder, "");
+
+        List<Path> written = new ArrayList<>();
+        if (targetFile != null) {
+            writeModel(model, targetFile.toPath());
+            written.add(targetFile.toPath());
+        }
+        if (shardDirectory != null) {
+            try (Phase phase = Phase.start("write-shards", "")) {
+                List<Path> shards = new ShardedModelWriter(model, builder::getOwningSchema, prettyPrint)
+                        .write(shardDirectory.toPath());
+                phase.count(Phase.Counter.FILES, shards.size())
+                        .count(Phase.Counter.BYTES, shards.stream().mapToLong(ToSmithyTask::sizeOf).sum());
+                written.addAll(shards);
+            }
+        }
+
+        File indexTemplateFile = getIndexTemplateFile();
+        if (indexTemplateFile != null) {
+            try (Phase phase = Phase.start("write-index-template", "")) {
+                writeIndexTemplate(schemata, indexTemplateFile.toPath());
+                phase.count(Phase.Counter.BYTES, sizeOf(indexTemplateFile.toPath()));
+            }
+        }
+
+        File modelProfileDirectory = getModelProfileDirectory();
+        if (modelProfileDirectory != null) {
+            getProject().delete(modelProfileDirectory);
+            modelProfiles.forEach((name, directives) -> writeProfileModel(
+                    ModelProfile.fromDirectives(name, directives), schemata, modelProfileDirectory));
+        } else if (!modelProfiles.isEmpty()) {
+            throw new RuntimeException("A model profile directory path must be set when model profiles are declared");
+        }
+
+        File manifestFile = getManifestFile();
+        if (manifestFile != null) {
+            Path manifestDirectory = manifestFile.getParentFile().toPath();
+            List<String> entries = written.stream()
+                    .map(path -> manifestDirectory.relativize(path).toString().replace(File.separatorChar, '/'))
+                    .collect(Collectors.toList());
+            try {
+                Files.createDirectories(manifestDirectory);
+                Files.write(manifestFile.toPath(),
+                        (String.join("\n", entries) + "\n").getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to write " + manifestFile, e);
+            }
+        }
+    }
+
+    private void writeProfileModel(ModelProfile profile, List<Schema> schemata, File directory) {
+        try (Phase phase = Phase.start("build-profile", profile.getName())) {
+            SmithyModelBuilder builder = profile.newModelBuilder(namespace, rootShapeName);
+            builder.addSchemata(profile.apply(schemata));
+            writeModel(buildModel(builder, profile.getName()),
+                    new File(directory, profile.getName() + ".json").toPath());
+        }
+    }
+
+    private Model buildModel(SmithyModelBuilder builder, String profileName) {
+        ModelValidation.Mode mode = ModelValidation.Mode.fromModeName(validation);
+        if (mode == ModelValidation.Mode.FULL) {
+            return builder.build().unwrap();
+        }
+
+        Model model = builder.buildUnvalidated();
+        try (Phase phase = Phase.start("validate", profileName)) {
+            switch (mode) {
+                case CONCURRENT:
+                    return new ModelValidation(getClass().getClassLoader()).validate(model).unwrap();
+                case INCREMENTAL:
+                    return INCREMENTAL_VALIDATIONS.computeIfAbsent(getPath() + "#" + profileName + "#"
+                            + builder.getConfigurationKey(), k -> new ModelValidation(getClass().getClassLoader()))
+                            .validateChanges(model)
+                            .unwrap();
+                default:
+                    return model;
+            }
+        }
+    }
+
+    private void writeModel(Model model, Path file) {
+        try (Phase phase = Phase.start("write-model", file.getFileName().toString())) {
+            int shapes = StreamingModelWriter.write(model, file, prettyPrint);
+            phase.count(Phase.Counter.FILES, 1)
+                    .count(Phase.Counter.SHAPES, shapes)
+                    .count(Phase.Counter.BYTES, sizeOf(file));
+        }
+    }
+
+    private void writeIndexTemplate(List<Schema> schemata, Path file) {
+        IndexTemplateGenerator.builder()
+                .catalog(FieldCatalog.compile(schemata))
+                .indexPatterns(indexPatterns)
+                .priority(indexTemplatePriority)
+                .profiles(indexTemplateProfiles.stream()
+                        .map(IndexTemplateGenerator.Profile::fromProfileName)
+                        .collect(Collectors.toSet()))
+                .build()
+                .write(file, prettyPrint);
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new RuntimeException("Unable to read the size of " + file, e);
         }
     }
 }
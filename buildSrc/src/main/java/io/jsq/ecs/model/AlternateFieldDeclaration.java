@@ -15,6 +15,10 @@ public final class AlternateFieldDeclaration {
         name = builder.name;
     }
 
+    public static Builder builder() {
+        return new Builder();
+    }
+
     public FieldSchema.Type getType() {
         return type;
     }
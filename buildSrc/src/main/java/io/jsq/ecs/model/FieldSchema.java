@@ -139,6 +139,41 @@ public final class FieldSchema {
         return Optional.ofNullable(normalize);
     }
 
+    /**
+     * @return whether the field is required, which is the case only if it is declared with {@code required: true}.
+     */
+    public boolean isRequired() {
+        return required != null && required;
+    }
+
+    /**
+     * @return whether the field is indexed, which is the case unless it is declared with {@code index: false}.
+     */
+    public boolean isIndexed() {
+        return index == null || index;
+    }
+
+    /**
+     * @return whether the field is normalized to an array.
+     */
+    public boolean isArray() {
+        return normalize != null && normalize.contains("array");
+    }
+
+    /**
+     * @return the object type, or null if none is declared.
+     */
+    public Type getObjectTypeOrNull() {
+        return objectType;
+    }
+
+    /**
+     * @return the allowed values, or an empty list if none are declared.
+     */
+    public List<AllowedValue> getAllowedValueList() {
+        return allowedValues == null ? Collections.emptyList() : allowedValues;
+    }
+
     public Builder toBuilder() {
         Builder builder = builder()
                 .name(getName())
@@ -84,15 +84,39 @@ public final class Schema {
         return Optional.ofNullable(reusable);
     }
 
+    /**
+     * @return the fields, or an empty list if none are declared.
+     */
+    public List<FieldSchema> getFieldList() {
+        return fields == null ? Collections.emptyList() : fields;
+    }
+
+    /**
+     * @return whether this is the root fieldset, which is the case only if it is declared with {@code root: true}.
+     */
+    public boolean isRoot() {
+        return root != null && root;
+    }
+
+    /**
+     * @return whether the fieldset appears at the top level of events, which is the case unless it is declared
+     * reusable with {@code top_level: false}.
+     */
+    public boolean isTopLevel() {
+        return reusable == null || reusable.getTopLevel();
+    }
+
     public Builder toBuilder() {
         Builder builder = builder()
                 .name(getName())
                 .title(getTitle())
+                .description(getDescription())
                 .type(getType());
 
         getGroup().ifPresent(builder::group);
         getFields().ifPresent(builder::fields);
         getShortDescription().ifPresent(builder::shortDescription);
+        getFootnote().ifPresent(builder::footnote);
         getRoot().ifPresent(builder::root);
         getReusable().ifPresent(builder::reusable);
 
@@ -1,16 +1,15 @@
 package io.jsq.ecs.plugins;
 
+import io.jsq.ecs.ShapeTraits;
 import io.jsq.ecs.ToSmithyExtension;
 import io.jsq.ecs.model.FieldSchema;
 import java.util.Optional;
-import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.traits.JsonNameTrait;
 
 public final class JsonNameTraitPlugin implements ToSmithyExtension  {
-    public MemberShape updateMemberForField(MemberShape memberShape, FieldSchema fieldSchema) {
-        return Optional.of(fieldSchema.getName())
-                .filter(name -> !name.equals(memberShape.getMemberName()))
-                .map(jsonName -> memberShape.toBuilder().addTrait(new JsonNameTrait(jsonName)).build())
-                .orElse(memberShape);
+    public void addMemberTraits(ShapeTraits traits, FieldSchema fieldSchema) {
+        Optional.of(fieldSchema.getName())
+                .filter(name -> !traits.getMemberName().filter(name::equals).isPresent())
+                .ifPresent(jsonName -> traits.add(new JsonNameTrait(jsonName)));
     }
 }
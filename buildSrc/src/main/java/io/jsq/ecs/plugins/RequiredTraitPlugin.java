@@ -1,15 +1,14 @@
 package io.jsq.ecs.plugins;
 
+import io.jsq.ecs.ShapeTraits;
 import io.jsq.ecs.ToSmithyExtension;
 import io.jsq.ecs.model.FieldSchema;
-import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.traits.RequiredTrait;
 
 public final class RequiredTraitPlugin implements ToSmithyExtension  {
-    public MemberShape updateMemberForField(MemberShape memberShape, FieldSchema fieldSchema) {
-        return fieldSchema.getRequired()
+    public void addMemberTraits(ShapeTraits traits, FieldSchema fieldSchema) {
+        fieldSchema.getRequired()
                 .filter(Boolean::booleanValue)
-                .map(req -> memberShape.toBuilder().addTrait(new RequiredTrait()).build())
-                .orElse(memberShape);
+                .ifPresent(req -> traits.add(new RequiredTrait()));
     }
 }
@@ -1,14 +1,14 @@
 package io.jsq.ecs.plugins;
 
+import io.jsq.ecs.ShapeTraits;
 import io.jsq.ecs.ToSmithyExtension;
 import io.jsq.ecs.model.FieldSchema;
 import java.util.Optional;
-import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.traits.TagsTrait;
 
 public class TagsTraitPlugin implements ToSmithyExtension  {
-    public MemberShape updateMemberForField(MemberShape memberShape, FieldSchema fieldSchema) {
-        TagsTrait.Builder traitBuilder = memberShape.getTrait(TagsTrait.class)
+    public void addMemberTraits(ShapeTraits traits, FieldSchema fieldSchema) {
+        TagsTrait.Builder traitBuilder = traits.get(TagsTrait.class)
                 .map(TagsTrait::toBuilder)
                 .orElseGet(TagsTrait::builder);
         Optional.of(fieldSchema.getLevel())
@@ -18,9 +18,8 @@ public class TagsTraitPlugin implements ToSmithyExtension  {
                 .filter(b -> !b)
                 .ifPresent(_b -> traitBuilder.addValue("ecs:unindexed"));
 
-        return Optional.of(traitBuilder.build())
+        Optional.of(traitBuilder.build())
                 .filter(trait -> !trait.getValues().isEmpty())
-                .map(trait -> memberShape.toBuilder().addTrait(trait).build())
-                .orElse(memberShape);
+                .ifPresent(traits::add);
     }
 }
@@ -0,0 +1,47 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.jsq.ecs.CategorizationChecker.Violation;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CategorizationCheckerTest {
+    private static CategorizationChecker checker;
+
+    @BeforeAll
+    static void compile() {
+        checker = CategorizationChecker.compile(Loader.loadSchemata());
+    }
+
+    @Test
+    void testAcceptsExpectedTypes() {
+        assertEquals(0, checker.check("event", Collections.singletonList("authentication"),
+                Arrays.asList("start", "info")));
+        assertEquals(0, checker.check("event", Arrays.asList("authentication", "file"),
+                Arrays.asList("start", "deletion")));
+        assertEquals(0, checker.check(null, Collections.emptyList(), Collections.singletonList("deletion")));
+    }
+
+    @Test
+    void testReportsViolations() {
+        assertEquals(Violation.UNEXPECTED_TYPE.flag(), checker.check("event",
+                Collections.singletonList("authentication"), Collections.singletonList("deletion")));
+        assertEquals(Violation.UNKNOWN_KIND.flag() | Violation.UNKNOWN_CATEGORY.flag()
+                | Violation.UNKNOWN_TYPE.flag(), checker.check("nonsense", Collections.singletonList("nonsense"),
+                Collections.singletonList("nonsense")));
+    }
+
+    @Test
+    void testChecksEncodedMasks() {
+        long categories = 1L << checker.categoryId("database");
+        long types = (1L << checker.typeId("access")) | (1L << checker.typeId("error"));
+
+        assertEquals(0, checker.check(categories, types));
+        assertEquals(Violation.UNEXPECTED_TYPE.flag(), checker.check(categories, types
+                | 1L << checker.typeId("creation")));
+        assertEquals(-1, checker.typeId("nonsense"));
+    }
+}
@@ -0,0 +1,73 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DocumentCodecTest {
+    private static final String FLAT = "{\"url.path\":\"/a\",\"http.response.body.bytes\":123,\"@timestamp\":\"2019\","
+            + "\"http.request.method\":\"get\",\"client.user.name\":\"alice\",\"labels.env\":\"prod\","
+            + "\"network.inner.vlan.id\":\"7\",\"custom\":{\"x\":[1,2]}}";
+    private static final String NESTED = "{\"@timestamp\":\"2019\",\"client\":{\"user\":{\"name\":\"alice\"}},"
+            + "\"http\":{\"request\":{\"method\":\"get\"},\"response\":{\"body\":{\"bytes\":123}}},"
+            + "\"labels\":{\"env\":\"prod\"},\"network\":{\"inner\":{\"vlan\":{\"id\":\"7\"}}},"
+            + "\"url\":{\"path\":\"/a\"},\"custom\":{\"x\":[1,2]}}";
+
+    private static DocumentCodec codec;
+
+    @BeforeAll
+    static void compile() {
+        codec = DocumentCodec.compile(Loader.loadSchemata());
+    }
+
+    @Test
+    void testNestsDottedKeys() throws IOException {
+        assertEquals(NESTED, convert(FLAT, true));
+        assertEquals(NESTED, convert(NESTED, true));
+    }
+
+    @Test
+    void testFlattensNestedKeys() throws IOException {
+        assertEquals("{\"@timestamp\":\"2019\",\"client.user.name\":\"alice\",\"http.request.method\":\"get\","
+                + "\"http.response.body.bytes\":123,\"labels\":{\"env\":\"prod\"},\"network.inner.vlan.id\":\"7\","
+                + "\"url.path\":\"/a\",\"custom\":{\"x\":[1,2]}}", convert(NESTED, false));
+    }
+
+    @Test
+    void testMergesMixedForms() throws IOException {
+        assertEquals("{\"http\":{\"request\":{\"method\":\"post\"},\"version\":\"2\"},"
+                + "\"labels\":{\"a\":\"b\",\"c\":\"d\"}}",
+                convert("{\"http\":{\"version\":\"2\",\"request.method\":\"get\"},\"http.request.method\":\"post\","
+                        + "\"labels\":{\"a\":\"b\"},\"labels.c\":\"d\"}", true));
+    }
+
+    @Test
+    void testRepeatedKeysAreLastWinsInBothDirections() throws IOException {
+        String event = "{\"http\":{\"request\":{\"method\":\"get\"}},\"custom\":1,\"labels.env\":\"dev\","
+                + "\"http.request.method\":\"post\",\"custom\":2,\"labels\":{},\"labels.env\":\"prod\"}";
+
+        assertEquals("{\"http\":{\"request\":{\"method\":\"post\"}},\"labels\":{\"env\":\"prod\"},\"custom\":2}",
+                convert(event, true));
+        assertEquals("{\"http.request.method\":\"post\",\"custom\":2,\"labels.env\":\"prod\",\"labels\":{}}",
+                convert(event, false));
+    }
+
+    @Test
+    void testGenerationWrapForgetsEarlierEvents() throws IOException {
+        DocumentCodec wrapping = DocumentCodec.compile(Loader.loadSchemata());
+        wrapping.setGeneration(-1);
+        byte[] flat = FLAT.getBytes(StandardCharsets.UTF_8);
+
+        // Every node starts out at generation zero, so a conversion at generation zero would take each for a repeat
+        assertEquals(NESTED, new String(wrapping.nest(flat), StandardCharsets.UTF_8));
+        assertEquals(NESTED, new String(wrapping.nest(flat), StandardCharsets.UTF_8));
+    }
+
+    private static String convert(String event, boolean nest) throws IOException {
+        byte[] bytes = event.getBytes(StandardCharsets.UTF_8);
+        return new String(nest ? codec.nest(bytes) : codec.flatten(bytes), StandardCharsets.UTF_8);
+    }
+}
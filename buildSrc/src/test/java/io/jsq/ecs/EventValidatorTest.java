@@ -0,0 +1,48 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class EventValidatorTest {
+    private static EventValidator validator;
+
+    @BeforeAll
+    static void compile() {
+        validator = EventValidator.compile(Loader.loadSchemata());
+    }
+
+    @Test
+    void testAcceptsNestedAndDottedEvents() throws IOException {
+        assertEquals(0, violations("{\"@timestamp\": \"2019-08-01T12:00:00Z\", \"ecs\": {\"version\": \"1.5.0\"},"
+                + " \"event\": {\"kind\": \"event\"}, \"http\": {\"response\": {\"body.bytes\": 1024}},"
+                + " \"source.ip\": \"10.0.0.1\", \"client\": {\"user\": {\"name\": \"alice\"}},"
+                + " \"client.geo.location\": {\"lat\": 41.1, \"lon\": -71.4}, \"labels\": {\"env\": \"prod\"},"
+                + " \"tags\": [\"a\", \"b\"], \"destination.ip\": \"2001:db8::1\"}"));
+    }
+
+    @Test
+    void testReportsViolations() throws IOException {
+        List<String> reported = new ArrayList<>();
+        int count = validator.validate(("{\"ecs.version\": \"1.5.0\", \"event.kind\": \"nonsense\","
+                + " \"http.response.body.bytes\": \"many\", \"source.ip\": \"10.0.0.256\", \"not\": {\"ecs\": 1}}")
+                .getBytes(StandardCharsets.UTF_8), (path, violation) -> reported.add(path + " " + violation));
+
+        assertEquals(5, count);
+        assertEquals(5, reported.size());
+        assertEquals("event.kind DISALLOWED_VALUE", reported.get(0));
+        assertEquals("http.response.body.bytes INVALID_VALUE", reported.get(1));
+        assertEquals("source.ip INVALID_VALUE", reported.get(2));
+        assertEquals("not UNKNOWN_FIELD", reported.get(3));
+        assertEquals("@timestamp MISSING_REQUIRED_FIELD", reported.get(4));
+    }
+
+    private static int violations(String event) throws IOException {
+        return validator.validate(event.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,51 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsq.ecs.model.FieldSchema;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FieldCatalogTest {
+    private static FieldCatalog catalog;
+
+    @BeforeAll
+    static void compile() {
+        catalog = FieldCatalog.compile(Loader.loadSchemata());
+    }
+
+    @Test
+    void testListsReusedPaths() {
+        int canonical = catalog.indexOf("user.name");
+        int reused = catalog.indexOf(new StringBuilder("client.user.name"));
+
+        assertTrue(canonical >= 0);
+        assertTrue(reused >= 0);
+        assertSame(catalog.getField(canonical), catalog.getField(reused));
+        assertTrue(catalog.isCanonical(canonical));
+        assertFalse(catalog.isCanonical(reused));
+        assertEquals(FieldSchema.Type.KEYWORD, catalog.get("network.inner.vlan.id").get().getType());
+    }
+
+    @Test
+    void testLooksUpCharacterRanges() {
+        char[] chars = "[client.user.name]".toCharArray();
+
+        assertEquals(catalog.indexOf("client.user.name"), catalog.indexOf(chars, 1, chars.length - 2));
+        assertEquals(-1, catalog.indexOf(chars, 1, 6));
+        assertEquals(-1, catalog.indexOf("client.user"));
+        assertFalse(catalog.get("not.a.field").isPresent());
+    }
+
+    @Test
+    void testInternsPaths() {
+        for (int i = 0; i < catalog.size(); i++) {
+            assertSame(catalog.getPath(i).intern(), catalog.getPath(i));
+            assertEquals(i, catalog.indexOf(catalog.getPath(i)));
+        }
+        assertSame("http.response.body.bytes", catalog.getPath(catalog.indexOf("http.response.body.bytes")));
+    }
+}
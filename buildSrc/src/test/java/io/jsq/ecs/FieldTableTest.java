@@ -0,0 +1,75 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsq.ecs.model.FieldSchema;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FieldTableTest {
+    private static FieldTable table;
+
+    @BeforeAll
+    static void compile() {
+        table = FieldTable.compile(Loader.loadSchemata());
+    }
+
+    @Test
+    void testBitmapQueriesMatchFieldDefinitions() {
+        FieldCatalog catalog = table.getCatalog();
+        BitSet keywordsWithIgnoreAbove = table.ofType(FieldSchema.Type.KEYWORD);
+        keywordsWithIgnoreAbove.and(table.with(FieldTable.Attribute.IGNORE_ABOVE));
+        BitSet extendedArrays = table.atLevel(FieldSchema.Level.EXTENDED);
+        extendedArrays.and(table.with(FieldTable.Attribute.ARRAY));
+
+        assertTrue(keywordsWithIgnoreAbove.cardinality() > 0);
+        assertTrue(extendedArrays.cardinality() > 0);
+        assertEquals(select(i -> catalog.getField(i).getType() == FieldSchema.Type.KEYWORD
+                && catalog.getField(i).getIgnoreAbove().isPresent()), keywordsWithIgnoreAbove);
+        assertEquals(select(i -> catalog.getField(i).getLevel() == FieldSchema.Level.EXTENDED
+                && catalog.getField(i).isArray()), extendedArrays);
+        assertEquals(table.size(), table.all().cardinality());
+    }
+
+    @Test
+    void testColumnsMatchFieldDefinitions() {
+        FieldCatalog catalog = table.getCatalog();
+        for (int i = 0; i < table.size(); i++) {
+            FieldSchema field = catalog.getField(i);
+            assertEquals(field.getType(), table.getType(i));
+            assertEquals(field.getLevel(), table.getLevel(i));
+            assertEquals((int) field.getIgnoreAbove().orElse(-1), table.getIgnoreAbove(i));
+            assertEquals(field.getName(), table.getName(i));
+            assertEquals(catalog.isCanonical(i), table.has(i, FieldTable.Attribute.CANONICAL));
+        }
+    }
+
+    @Test
+    void testDictionaryEncodesNames() {
+        int canonical = table.getCatalog().indexOf("user.name");
+        int reused = table.getCatalog().indexOf("client.user.name");
+        List<String> paths = table.getPaths(table.named("name"));
+
+        assertSame(table.getName(canonical), table.getName(reused));
+        assertTrue(paths.contains("user.name"));
+        assertTrue(paths.contains("client.user.name"));
+        assertTrue(paths.stream().allMatch(path -> path.endsWith(".name")));
+        assertTrue(table.named("not-a-field").isEmpty());
+    }
+
+    private static BitSet select(IntPredicate predicate) {
+        BitSet rows = new BitSet();
+        for (int i = 0; i < table.size(); i++) {
+            if (predicate.test(i)) {
+                rows.set(i);
+            }
+        }
+
+        return rows;
+    }
+}
@@ -0,0 +1,88 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import io.jsq.ecs.model.Schema;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.shapes.Shape;
+
+class FragmentCacheTest {
+    @Test
+    void testSnapshottedSchemataProduceIdenticalShapes(@TempDir Path directory) {
+        SmithyModelBuilder uncached = new SmithyModelBuilder("example.test", "Record");
+        Loader.loadSchemata().forEach(uncached::addSchema);
+
+        FragmentCache cache = new FragmentCache(directory);
+        SmithyModelBuilder first = new SmithyModelBuilder("example.test", "Record");
+        cache.addSchemata(first);
+        SmithyModelBuilder second = new SmithyModelBuilder("example.test", "Record");
+        cache.addSchemata(second);
+
+        Set<Shape> expected = new HashSet<>(uncached.buildShapes());
+        assertEquals(expected, new HashSet<>(first.buildShapes()));
+        assertEquals(expected, new HashSet<>(second.buildShapes()));
+    }
+
+    @Test
+    void testPersistsOneSnapshotPerSchemaFileAndShapesPerSchema(@TempDir Path directory) throws IOException {
+        Files.createFile(directory.resolve("stale.snapshot"));
+        Files.createFile(directory.resolve("stale.json"));
+        List<Schema> schemata = new FragmentCache(directory)
+                .addSchemata(new SmithyModelBuilder("example.persisted", "Record"));
+
+        assertEquals(Loader.fingerprintSchemata().size() - 1, listFiles(directory, ".snapshot").size());
+        assertEquals(schemata.size(), listFiles(directory, ".json").size());
+    }
+
+    @Test
+    void testRestoresShapesOfUnchangedSchemata(@TempDir Path directory) throws IOException {
+        FragmentCache cache = new FragmentCache(directory);
+        cache.addSchemata(new SmithyModelBuilder("example.test", "Record"));
+        FileTime epoch = FileTime.fromMillis(0);
+        for (Path file : listFiles(directory, ".json")) {
+            Files.setLastModifiedTime(file, epoch);
+        }
+
+        cache.addSchemata(new SmithyModelBuilder("example.test", "Record"));
+
+        for (Path file : listFiles(directory, ".json")) {
+            assertEquals(epoch, Files.getLastModifiedTime(file));
+        }
+    }
+
+    @Test
+    void testReconvertsSchemataForADifferentConfiguration(@TempDir Path directory) throws IOException {
+        FragmentCache cache = new FragmentCache(directory);
+        cache.addSchemata(new SmithyModelBuilder("example.test", "Record"));
+        Set<Path> first = listFiles(directory, ".json");
+
+        SmithyModelBuilder other = new SmithyModelBuilder("example.other", "Record");
+        cache.addSchemata(other);
+        Set<Path> second = listFiles(directory, ".json");
+
+        SmithyModelBuilder uncached = new SmithyModelBuilder("example.other", "Record");
+        Loader.loadSchemata().forEach(uncached::addSchema);
+        assertEquals(new HashSet<>(uncached.buildShapes()), new HashSet<>(other.buildShapes()));
+        assertEquals(first.size(), second.size());
+        second.retainAll(first);
+        assertTrue(second.isEmpty());
+    }
+
+    private static Set<Path> listFiles(Path directory, String extension) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(extension))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
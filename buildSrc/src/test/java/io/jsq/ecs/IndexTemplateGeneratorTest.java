@@ -0,0 +1,69 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IndexTemplateGeneratorTest {
+    private static FieldCatalog catalog;
+
+    @BeforeAll
+    static void compile() {
+        catalog = FieldCatalog.compile(Loader.loadSchemata());
+    }
+
+    @Test
+    void testMapsStorageHintsExactly() throws IOException {
+        JsonNode template = template(Collections.emptySet());
+        JsonNode properties = template.path("template").path("mappings").path("properties");
+
+        assertEquals("ecs-*", template.path("index_patterns").path(0).asText());
+        assertEquals(new ObjectMapper().readTree("{\"type\": \"keyword\", \"index\": false, \"doc_values\": false}"),
+                properties.path("event").path("properties").path("original"));
+        assertEquals(1, properties.path("file").path("properties").path("drive_letter").path("ignore_above").asInt());
+        assertEquals("text", properties.path("error").path("properties").path("stack_trace")
+                .path("fields").path("text").path("type").asText());
+        assertEquals("keyword", properties.path("client").path("properties").path("user").path("properties")
+                .path("name").path("type").asText());
+        assertFalse(properties.path("message").has("norms"));
+        assertEquals("labels.*", template.path("template").path("mappings").path("dynamic_templates")
+                .findValue("labels").path("path_match").asText());
+    }
+
+    @Test
+    void testAppliesProfiles() throws IOException {
+        JsonNode properties = template(EnumSet.allOf(IndexTemplateGenerator.Profile.class))
+                .path("template").path("mappings").path("properties");
+
+        assertFalse(properties.path("error").path("properties").has("stack_trace"));
+        assertTrue(properties.path("error").path("properties").has("message"));
+        assertFalse(properties.path("message").path("norms").asBoolean(true));
+        assertFalse(properties.path("user_agent").path("properties").path("original").has("fields"));
+    }
+
+    private static JsonNode template(Set<IndexTemplateGenerator.Profile> profiles) throws IOException {
+        StringWriter written = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(written)) {
+            IndexTemplateGenerator.builder()
+                    .catalog(catalog)
+                    .indexPatterns(Collections.singletonList("ecs-*"))
+                    .profiles(profiles)
+                    .build()
+                    .writeTemplate(generator);
+        }
+
+        return new ObjectMapper().readTree(written.toString());
+    }
+}
@@ -0,0 +1,74 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+class JavaBindingGeneratorTest {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void testGeneratesClassPerReachableStructure() {
+        Map<String, String> sources = generator().generate();
+
+        assertTrue(sources.containsKey(JavaBindingGenerator.SUPPORT_CLASS_NAME));
+        assertTrue(sources.containsKey("Record"));
+        assertTrue(sources.containsKey("HttpRequest"));
+        assertTrue(sources.get("Record").contains("new SerializedString(\"@timestamp\")"));
+    }
+
+    @Test
+    void testGeneratedClassesRoundTripEvents(@TempDir Path directory) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(
+                "-d", directory.toString(), "-cp", System.getProperty("java.class.path")));
+        generator().write(directory.resolve("src")).forEach(file -> arguments.add(file.toString()));
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(new String[0])));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {directory.toUri().toURL()},
+                getClass().getClassLoader())) {
+            Class<?> record = loader.loadClass("elastic.ecs.Record");
+            Object value;
+            String event = "{\"@timestamp\": \"2019-08-01T12:00:00.000Z\", \"tags\": \"edge\","
+                    + " \"labels\": {\"env\": \"prod\"}, \"not_ecs\": [{\"a\": 1}], \"http\": {\"request\":"
+                    + " {\"method\": \"get\"}, \"response\": {\"body\": {\"bytes\": 1024}}}}";
+            try (JsonParser parser = JSON.createParser(event)) {
+                value = record.getMethod("readFrom", JsonParser.class).invoke(null, parser);
+            }
+
+            StringWriter written = new StringWriter();
+            try (JsonGenerator generator = JSON.createGenerator(written)) {
+                record.getMethod("writeTo", JsonGenerator.class).invoke(value, generator);
+            }
+
+            ObjectMapper mapper = new ObjectMapper();
+            assertEquals(mapper.readTree("{\"@timestamp\": \"2019-08-01T12:00:00.000Z\", \"tags\": [\"edge\"],"
+                    + " \"labels\": {\"env\": \"prod\"}, \"http\": {\"request\": {\"method\": \"get\"},"
+                    + " \"response\": {\"body\": {\"bytes\": 1024}}}}"), mapper.readTree(written.toString()));
+        }
+    }
+
+    private static JavaBindingGenerator generator() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("elastic.ecs", "Record");
+        builder.addSchemata(Loader.loadSchemata());
+        Model model = builder.build().unwrap();
+
+        return new JavaBindingGenerator(model, ShapeId.fromParts("elastic.ecs", "Record"), "elastic.ecs");
+    }
+}
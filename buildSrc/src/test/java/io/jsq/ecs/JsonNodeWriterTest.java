@@ -0,0 +1,41 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.ModelSerializer;
+
+class JsonNodeWriterTest {
+    @Test
+    void testWritesEquivalentJson() throws IOException {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        Loader.loadSchemata().forEach(builder::addSchema);
+        Node model = ModelSerializer.builder().build().serialize(builder.build().unwrap());
+
+        assertEquals(model, Node.parse(write(model, true)));
+        assertEquals(model, Node.parse(write(model, false)));
+    }
+
+    @Test
+    void testFormatsAndEscapesValues() throws IOException {
+        Node node = Node.objectNodeBuilder()
+                .withMember("text", Node.from("a \"quoted\"\tvalue\\\u0001"))
+                .withMember("empty", Node.objectNode())
+                .withMember("list", Node.arrayNode(Node.from(1), Node.from(true)))
+                .build();
+
+        assertEquals("{\"text\":\"a \\\"quoted\\\"\\tvalue\\\\\\u0001\",\"empty\":{},\"list\":[1,true]}",
+                write(node, false));
+        assertEquals("{\n    \"text\": \"a \\\"quoted\\\"\\tvalue\\\\\\u0001\",\n    \"empty\": {},\n"
+                + "    \"list\": [\n        1,\n        true\n    ]\n}", write(node, true));
+    }
+
+    private static String write(Node node, boolean pretty) throws IOException {
+        StringWriter writer = new StringWriter();
+        JsonNodeWriter.write(node, writer, pretty);
+        return writer.toString();
+    }
+}
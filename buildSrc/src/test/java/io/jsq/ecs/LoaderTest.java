@@ -1,9 +1,21 @@
 package io.jsq.ecs;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.jsq.ecs.model.ReusabilityDeclaration;
 import io.jsq.ecs.model.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 class LoaderTest {
@@ -12,4 +24,57 @@ class LoaderTest {
         List<Schema> schemata = Loader.loadSchemata();
         assertTrue(schemata.size() > 0);
     }
+
+    @Test
+    void testConcurrentLoadingPreservesManifestOrder() {
+        List<String> sequential = Loader.loadSchemata().stream()
+                .map(Schema::getName)
+                .collect(Collectors.toList());
+        List<String> concurrent = Loader.loadSchemataConcurrently().stream()
+                .map(Schema::getName)
+                .collect(Collectors.toList());
+
+        assertEquals(sequential, concurrent);
+    }
+
+    @Test
+    void testFingerprintsCoverManifestAndEverySchemaFile() {
+        Map<String, String> fingerprints = Loader.fingerprintSchemata();
+
+        assertTrue(fingerprints.containsKey("manifest"));
+        assertTrue(fingerprints.keySet().containsAll(Loader.loadManifestEntries()));
+        assertEquals(fingerprints, Loader.fingerprintSchemata());
+    }
+
+    @Test
+    void testBundledContentHashMatchesBundledSchemata() {
+        assertEquals(Loader.contentHash(), Loader.bundledContentHash());
+    }
+
+    @Test
+    void testSubsetLoadingIncludesReuseClosure() {
+        Map<String, Schema> schemata = Loader.loadSchemata(Arrays.asList("client", "http")).stream()
+                .collect(Collectors.toMap(Schema::getName, schema -> schema));
+
+        assertTrue(schemata.keySet().containsAll(Arrays.asList("base", "client", "http", "geo", "user", "group")));
+        assertFalse(schemata.containsKey("source"));
+        assertFalse(schemata.containsKey("url"));
+        assertEquals(Collections.singletonList("client"), schemata.get("geo").getReusable()
+                .map(ReusabilityDeclaration::getExpected)
+                .get());
+        assertThrows(RuntimeException.class, () -> Loader.loadSchemata(Collections.singleton("no_such_fieldset")));
+    }
+
+    @Test
+    void testFieldsetIndexRoundTrips() throws IOException {
+        FieldsetIndex index = FieldsetIndex.index(Loader.loadSchemataByFile());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write("hash", out);
+        List<String> fieldsets = Arrays.asList("observer", "url");
+
+        Optional<FieldsetIndex> read = FieldsetIndex.read(new ByteArrayInputStream(out.toByteArray()), "hash");
+        assertEquals(index.resolve(fieldsets), read.get().resolve(fieldsets));
+        assertTrue(read.get().resolve(fieldsets).contains("interface"));
+        assertFalse(FieldsetIndex.read(new ByteArrayInputStream(out.toByteArray()), "other").isPresent());
+    }
 }
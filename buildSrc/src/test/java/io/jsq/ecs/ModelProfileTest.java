@@ -0,0 +1,69 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.ReusabilityDeclaration;
+import io.jsq.ecs.model.Schema;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.traits.DocumentationTrait;
+import software.amazon.smithy.model.validation.ValidatedResult;
+
+class ModelProfileTest {
+    @Test
+    void testTrimsFieldsByLevelAndIndex() {
+        List<Schema> trimmed = ModelProfile.fromDirectives("core", Arrays.asList("core-only", "indexed-only"))
+                .apply(Loader.loadSchemata());
+        List<FieldSchema> fields = trimmed.stream()
+                .flatMap(schema -> schema.getFields().orElse(Collections.emptyList()).stream())
+                .collect(Collectors.toList());
+
+        assertEquals(Loader.loadSchemata().size(), trimmed.size());
+        assertFalse(fields.isEmpty());
+        assertTrue(fields.stream().allMatch(field -> field.getLevel() == FieldSchema.Level.CORE));
+        assertTrue(fields.stream().allMatch(field -> field.getIndex().orElse(true)));
+    }
+
+    @Test
+    void testExcludesFieldsetsAndTheirReuse() {
+        Map<String, Schema> trimmed = ModelProfile.fromDirectives("no-client", Collections.singletonList(
+                "exclude-fieldsets=client, dns")).apply(Loader.loadSchemata()).stream()
+                .collect(Collectors.toMap(Schema::getName, schema -> schema));
+
+        assertFalse(trimmed.containsKey("client"));
+        assertFalse(trimmed.containsKey("dns"));
+        assertFalse(trimmed.get("geo").getReusable()
+                .map(ReusabilityDeclaration::getExpected)
+                .get()
+                .contains("client"));
+        assertThrows(RuntimeException.class, () -> ModelProfile.fromDirectives("typo",
+                Collections.singletonList("exclude-fieldsets=clients")).apply(Loader.loadSchemata()));
+        assertThrows(RuntimeException.class, () -> ModelProfile.fromDirectives("typo",
+                Collections.singletonList("core")));
+    }
+
+    @Test
+    void testBuildsValidUndocumentedModel() {
+        ModelProfile profile = ModelProfile.fromDirectives("core", Arrays.asList("core-only", "no-documentation"));
+        SmithyModelBuilder builder = profile.newModelBuilder("example.test", "Record");
+        builder.addSchemata(profile.apply(Loader.loadSchemata()));
+        ValidatedResult<Model> result = builder.build();
+
+        assertFalse(result.isBroken());
+        assertTrue(result.unwrap().getShapeIndex().shapes()
+                .filter(shape -> shape.getId().getNamespace().equals("example.test"))
+                .noneMatch(shape -> shape.hasTrait(DocumentationTrait.class)));
+        assertNotEquals(new SmithyModelBuilder("example.test", "Record").getConfigurationKey(),
+                builder.getConfigurationKey());
+    }
+}
@@ -0,0 +1,87 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeIndex;
+import software.amazon.smithy.model.shapes.StructureShape;
+import software.amazon.smithy.model.validation.ValidatedResult;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+class ModelValidationTest {
+    private static final ShapeId BROKEN = ShapeId.from("example.test#Broken");
+
+    @Test
+    void testConcurrentValidationAcceptsGeneratedModel() {
+        ValidatedResult<Model> result = new ModelValidation(getClass().getClassLoader()).validate(model());
+
+        assertFalse(result.isBroken());
+    }
+
+    @Test
+    void testIncrementalValidationReportsChangedShapes() {
+        ModelValidation validation = new ModelValidation(getClass().getClassLoader());
+        Model model = model();
+        assertFalse(validation.validateChanges(model).isBroken());
+
+        Model broken = withBrokenShape(model);
+        ValidatedResult<Model> result = validation.validateChanges(broken);
+        assertTrue(result.isBroken());
+        assertTrue(shapesWithEvents(result).contains(BROKEN));
+        assertThrows(RuntimeException.class, result::unwrap);
+
+        assertFalse(validation.validateChanges(model).isBroken());
+    }
+
+    @Test
+    void testIncrementalValidationChecksAddedShapesAgainstWholeModel() {
+        ModelValidation validation = new ModelValidation(getClass().getClassLoader());
+        Model model = model();
+        assertFalse(validation.validateChanges(model).isBroken());
+
+        // Conflicts, case-insensitively, with the unchanged `Http` structure
+        ShapeIndex.Builder index = ShapeIndex.builder();
+        model.getShapeIndex().shapes().forEach(index::addShape);
+        index.addShape(StructureShape.builder().id(ShapeId.from("example.test#HTTP")).build());
+
+        assertTrue(validation.validateChanges(model.toBuilder().shapeIndex(index.build()).build()).isBroken());
+    }
+
+    private static Model model() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchemata(Loader.loadSchemata(Arrays.asList("http", "url")));
+
+        return builder.buildUnvalidated();
+    }
+
+    // Adds a structure with a member targeting a shape that does not exist
+    private static Model withBrokenShape(Model model) {
+        MemberShape member = MemberShape.builder()
+                .id(BROKEN.withMember("missing"))
+                .target(ShapeId.from("example.test#Missing"))
+                .build();
+        ShapeIndex.Builder index = ShapeIndex.builder();
+        model.getShapeIndex().shapes().forEach(index::addShape);
+        index.addShape(StructureShape.builder().id(BROKEN).addMember(member).build());
+        index.addShape(member);
+
+        return model.toBuilder().shapeIndex(index.build()).build();
+    }
+
+    private static Set<ShapeId> shapesWithEvents(ValidatedResult<Model> result) {
+        return result.getValidationEvents().stream()
+                .map(ValidationEvent::getShapeId)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,78 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PhaseReportTest {
+    @Test
+    void testRecordsPhasesWhileActive() {
+        PhaseReport report = PhaseReport.start();
+        try {
+            assertThrows(RuntimeException.class, PhaseReport::start);
+            Loader.loadSchemata();
+        } finally {
+            report.stop();
+        }
+        assertNull(PhaseReport.active());
+        Loader.loadSchemata();
+
+        assertEquals(1, report.count("read-manifest"));
+        assertEquals(Loader.loadManifestEntries().size(), report.count("parse"));
+        assertEquals(report.count("parse"), report.total("read-manifest", Phase.Counter.FILES));
+        assertTrue(report.total("parse", Phase.Counter.FIELDS) > 0);
+    }
+
+    @Test
+    void testReportsAreScopedToTheirThreadAndItsParallelWork() throws InterruptedException {
+        AtomicLong otherCount = new AtomicLong(-1);
+        PhaseReport report = PhaseReport.start();
+        try {
+            Thread other = new Thread(() -> {
+                PhaseReport otherReport = PhaseReport.start();
+                Phase.start("other", "").close();
+                otherReport.stop();
+                otherCount.set(otherReport.count("other"));
+            });
+            other.start();
+            other.join();
+            Loader.loadSchemataConcurrently();
+        } finally {
+            report.stop();
+        }
+
+        assertEquals(1, otherCount.get());
+        assertEquals(0, report.count("other"));
+        assertEquals(Loader.loadManifestEntries().size(), report.count("parse"));
+    }
+
+    @Test
+    void testWritesReportAsJson(@TempDir Path directory) throws IOException {
+        PhaseReport report = PhaseReport.start();
+        try (Phase phase = Phase.start("write-model", "model.json")) {
+            assertTrue(phase.isRecording());
+            phase.count(Phase.Counter.BYTES, 1024);
+        } finally {
+            report.stop();
+        }
+        Phase.start("write-model", "model.json").close();
+        assertEquals(1, report.count("write-model"));
+
+        Path file = directory.resolve("reports/phases.json");
+        report.write(file);
+        JsonNode phase = new ObjectMapper().readTree(file.toFile()).get("phases").get(0);
+        assertEquals("write-model", phase.get("phase").asText());
+        assertEquals(1, phase.get("count").asLong());
+        assertEquals(1024, phase.get("bytes").asLong());
+        assertEquals("model.json", phase.get("subjects").get(0).get("subject").asText());
+    }
+}
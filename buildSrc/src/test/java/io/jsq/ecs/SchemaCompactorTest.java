@@ -0,0 +1,64 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.Schema;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class SchemaCompactorTest {
+    @Test
+    void testLeanSchemataKeepStructureWithoutDocumentation() {
+        List<Schema> schemata = Loader.loadSchemata();
+        List<Schema> lean = Loader.loadLeanSchemata();
+
+        assertEquals(fieldPaths(schemata), fieldPaths(lean));
+        assertEquals(FieldCatalog.compile(schemata).getPaths(), FieldCatalog.compile(lean).getPaths());
+        assertTrue(lean.stream().allMatch(schema -> schema.getDescription().isEmpty()));
+        assertTrue(lean.stream()
+                .flatMap(schema -> schema.getFieldList().stream())
+                .allMatch(field -> field.getDescription().isEmpty() && !field.getExample().isPresent()));
+    }
+
+    @Test
+    void testRepeatedStringsAreShared() {
+        Map<String, Schema> lean = Loader.loadLeanSchemata().stream()
+                .collect(Collectors.toMap(Schema::getName, Function.identity()));
+
+        assertSame(field(lean.get("user"), "id").getName(), field(lean.get("group"), "id").getName());
+        assertSame(lean.get("geo").getName(), Loader.loadLeanSchemata().stream()
+                .filter(schema -> schema.getName().equals("geo"))
+                .findFirst()
+                .get()
+                .getName());
+    }
+
+    @Test
+    void testDocumentationCanBeKeptOrFetchedLater() {
+        Schema http = Loader.loadSchema("http");
+        Schema compacted = SchemaCompactor.compact(http, true);
+
+        assertFalse(http.getDescription().isEmpty());
+        assertEquals(http.getDescription(), compacted.getDescription());
+        assertEquals(field(http, "request.method").getDescription(),
+                field(compacted, "request.method").getDescription());
+    }
+
+    private static List<String> fieldPaths(List<Schema> schemata) {
+        return schemata.stream()
+                .flatMap(schema -> schema.getFieldList().stream()
+                        .map(field -> schema.getName() + "." + field.getName()))
+                .collect(Collectors.toList());
+    }
+
+    private static FieldSchema field(Schema schema, String name) {
+        return schema.getFieldList().stream().filter(field -> field.getName().equals(name)).findFirst().get();
+    }
+}
@@ -0,0 +1,47 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.jsq.ecs.model.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class SchemaSnapshotTest {
+    @Test
+    void testSnapshotRoundTripsAllSchemata() throws IOException {
+        List<Schema> schemata = Loader.loadSchemata();
+        byte[] snapshot = write(schemata, "hash");
+        List<Schema> restored = SchemaSnapshot.read(new ByteArrayInputStream(snapshot), "hash").get();
+
+        assertEquals(names(schemata), names(restored));
+        assertArrayEquals(snapshot, write(restored, "hash"));
+    }
+
+    @Test
+    void testStaleSnapshotIsNotRead() throws IOException {
+        byte[] snapshot = write(Loader.loadSchemata(), "old");
+
+        assertFalse(SchemaSnapshot.read(new ByteArrayInputStream(snapshot), "new").isPresent());
+    }
+
+    @Test
+    void testPrecompiledSchemataMatchYaml() {
+        assertEquals(names(Loader.loadSchemata()), names(Loader.loadPrecompiledSchemata()));
+    }
+
+    private static byte[] write(List<Schema> schemata, String hash) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SchemaSnapshot.write(schemata, hash, out);
+        return out.toByteArray();
+    }
+
+    private static List<String> names(List<Schema> schemata) {
+        return schemata.stream().map(Schema::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,65 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+class ShapeNamesTest {
+    @Test
+    void testTitleCaseCapitalizesEachWord() {
+        ShapeNames names = new ShapeNames("example.test");
+
+        assertEquals("AutonomousSystem", names.titleCase("Autonomous  System"));
+        assertEquals("UserAgent", names.titleCase("User agent"));
+        assertEquals("Tls", names.titleCase("TLS"));
+    }
+
+    @Test
+    void testIdentifierDropsCharactersInvalidInSmithy() {
+        ShapeNames names = new ShapeNames("example.test");
+
+        assertEquals("Md5", names.identifier("md5"));
+        assertEquals("TopLevelDomain", names.identifier("top_level_domain"));
+        assertEquals("Sha256", names.identifier("--SHA256--"));
+        assertEquals("orgName", names.memberName(ShapeId.from("example.test#As"), "org_name"));
+    }
+
+    @Test
+    void testNestedShapeIdsAreMemoized() {
+        ShapeNames names = new ShapeNames("example.test");
+        ShapeId http = names.shapeId("Http");
+        ShapeId response = names.nestedShapeId(http, "response");
+
+        assertEquals(ShapeId.from("example.test#HttpResponse"), response);
+        assertEquals(ShapeId.from("example.test#HttpResponseBody"), names.nestedShapeId(response, "body"));
+        assertEquals(ShapeId.from("example.test#HttpUser_agent"), names.nestedShapeId(http, "user-agent"));
+        assertSame(response, names.nestedShapeId(http, "response"));
+    }
+
+    @Test
+    void testDetectsCollidingNames() {
+        ShapeNames names = new ShapeNames("example.test");
+        ShapeId file = names.shapeId("File");
+        names.memberName(file, "hash-value");
+
+        assertThrows(RuntimeException.class, () -> names.memberName(file, "hash_value"));
+    }
+
+    @Test
+    void testDetectsShapesClaimedForFieldsCollidingWithIntermediates() {
+        ShapeNames names = new ShapeNames("example.test");
+        ShapeId http = names.shapeId("Http");
+        names.claim(ShapeId.from("example.test#HttpResponse"), http + ".response (string)");
+
+        assertThrows(RuntimeException.class, () -> names.nestedShapeId(http, "response"));
+    }
+
+    @Test
+    void testEnumConstantNames() {
+        assertEquals("NETWORK_TRAFFIC", ShapeNames.enumConstantName("network_traffic"));
+        assertEquals("IPV4_ADDRESS", ShapeNames.enumConstantName(" ipv4 - address "));
+    }
+}
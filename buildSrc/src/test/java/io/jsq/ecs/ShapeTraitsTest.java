@@ -0,0 +1,69 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.plugins.DocumentationTraitPlugin;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.traits.DocumentationTrait;
+import software.amazon.smithy.model.traits.DynamicTrait;
+import software.amazon.smithy.model.traits.SensitiveTrait;
+
+class ShapeTraitsTest {
+    private static final FieldSchema FIELD = FieldSchema.builder()
+            .name("name")
+            .type(FieldSchema.Type.KEYWORD)
+            .level(FieldSchema.Level.CORE)
+            .description("A name.")
+            .build();
+
+    @Test
+    void testLegacyExtensionsAreAdapted() {
+        ToSmithyExtension legacy = new ToSmithyExtension() {
+            @Override
+            public MemberShape updateMemberForField(MemberShape memberShape, FieldSchema fieldSchema) {
+                return memberShape.toBuilder().addTrait(new SensitiveTrait()).build();
+            }
+        };
+        ShapeTraits traits = ShapeTraits.forMember(
+                ShapeId.from("example.test#User$name"), ShapeId.from("smithy.api#String"));
+
+        new DocumentationTraitPlugin().addMemberTraits(traits, FIELD);
+        legacy.addMemberTraits(traits, FIELD);
+        MemberShape member = traits.toMemberShape();
+
+        assertEquals("A name.", member.getTrait(DocumentationTrait.class).get().getValue());
+        assertTrue(member.hasTrait(SensitiveTrait.class));
+    }
+
+    @Test
+    void testTraitsSharingAClassAreKeptApart() {
+        ShapeTraits traits = ShapeTraits.forStructure(ShapeId.from("example.test#User"))
+                .add(new DynamicTrait(ShapeId.from("example.test#first"), Node.from("a")))
+                .add(new DynamicTrait(ShapeId.from("example.test#second"), Node.from("b")))
+                .add(new DynamicTrait(ShapeId.from("example.test#first"), Node.from("c")));
+
+        assertEquals(2, traits.getAll().size());
+        assertEquals(Node.from("c"), traits.get(ShapeId.from("example.test#first")).get().toNode());
+        assertTrue(traits.has(ShapeId.from("example.test#second")));
+    }
+
+    @Test
+    void testLegacyExtensionsMayOnlyChangeTraits() {
+        ToSmithyExtension legacy = new ToSmithyExtension() {
+            @Override
+            public MemberShape updateMemberForField(MemberShape memberShape, FieldSchema fieldSchema) {
+                return memberShape.toBuilder().target("smithy.api#Integer").build();
+            }
+        };
+        ShapeTraits traits = ShapeTraits.forMember(
+                ShapeId.from("example.test#User$name"), ShapeId.from("smithy.api#String"));
+
+        assertThrows(RuntimeException.class, () -> legacy.addMemberTraits(traits, FIELD));
+    }
+}
@@ -0,0 +1,54 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.loader.ModelAssembler;
+import software.amazon.smithy.model.shapes.ModelSerializer;
+
+class ShardedModelWriterTest {
+    @Test
+    void testShardsAssembleIntoOriginalModel(@TempDir Path directory) {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchemata(Loader.loadSchemata());
+        Model model = builder.build().unwrap();
+
+        List<Path> files = new ShardedModelWriter(model, builder::getOwningSchema, true).write(directory);
+        ModelAssembler assembler = Model.assembler(getClass().getClassLoader());
+        files.forEach(assembler::addImport);
+        Model reassembled = assembler.assemble().unwrap();
+
+        assertEquals(directory.resolve(ShardedModelWriter.PRELUDE_NAME + ".json"), files.get(0));
+        assertTrue(files.contains(directory.resolve("http.json")));
+        assertEquals(ModelSerializer.builder().build().serialize(model),
+                ModelSerializer.builder().build().serialize(reassembled));
+    }
+
+    @Test
+    void testRewritingKeepsUnchangedShardsAndDeletesStaleOnes(@TempDir Path directory) throws IOException {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchemata(Loader.loadSchemata());
+        ShardedModelWriter writer = new ShardedModelWriter(builder.build().unwrap(), builder::getOwningSchema, true);
+        List<Path> files = writer.write(directory);
+        FileTime epoch = FileTime.fromMillis(0);
+        for (Path file : files) {
+            Files.setLastModifiedTime(file, epoch);
+        }
+        Path stale = Files.createFile(directory.resolve("removed.json"));
+
+        assertEquals(files, writer.write(directory));
+        for (Path file : files) {
+            assertEquals(epoch, Files.getLastModifiedTime(file));
+        }
+        assertFalse(Files.exists(stale));
+    }
+}
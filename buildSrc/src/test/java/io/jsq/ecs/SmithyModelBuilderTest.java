@@ -1,7 +1,15 @@
 package io.jsq.ecs;
 
+import io.jsq.ecs.model.AllowedValue;
+import io.jsq.ecs.model.FieldSchema;
+import io.jsq.ecs.model.ReusabilityDeclaration;
 import io.jsq.ecs.model.Schema;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import software.amazon.smithy.model.Model;
@@ -9,6 +17,7 @@ import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.shapes.ShapeIndex;
+import software.amazon.smithy.model.shapes.StructureShape;
 import software.amazon.smithy.model.validation.ValidatedResult;
 
 class SmithyModelBuilderTest {
@@ -23,16 +32,186 @@ class SmithyModelBuilderTest {
         Assertions.assertTrue(result.getResult().isPresent());
     }
 
+    @Test
+    void testModelBuilderBuildsValidModelFromSubset() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchemata(Loader.loadSchemata(Arrays.asList("client", "url")));
+        ValidatedResult<Model> result = builder.build();
+        Assertions.assertFalse(result.isBroken());
+
+        ShapeIndex index = result.unwrap().getShapeIndex();
+        StructureShape rootShape = index.getShape(ShapeId.from("example.test#Record"))
+                .flatMap(Shape::asStructureShape)
+                .get();
+        Assertions.assertTrue(rootShape.getMember("url").isPresent());
+        Assertions.assertFalse(rootShape.getMember("source").isPresent());
+        Shape client = index.getShape(ShapeId.from("example.test#Client")).get();
+        Assertions.assertTrue(client.asStructureShape().flatMap(ss -> ss.getMember("geo")).isPresent());
+    }
+
+    @Test
+    void testUnvalidatedModelContainsAssembledShapes() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchemata(Loader.loadSchemata());
+
+        Assertions.assertEquals(builder.build().unwrap().getShapeIndex().shapes().collect(Collectors.toSet()),
+                builder.buildUnvalidated().getShapeIndex().shapes().collect(Collectors.toSet()));
+    }
+
     @Test
     void testModelBuilderCorrectlyAppliesArrayNormalization() {
         List<Schema> schemata = Loader.loadSchemata();
         SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
         schemata.forEach(builder::addSchema);
-        ShapeIndex index = builder.build().unwrap().getShapeIndex();
+        ShapeIndex index = builder.buildUnvalidated().getShapeIndex();
 
         Shape rootShape = index.getShape(ShapeId.from("example.test#Record")).get();
         MemberShape tagsMember = rootShape.asStructureShape().flatMap(ss -> ss.getMember("tags")).get();
         Shape tagsTarget = index.getShape(tagsMember.getTarget()).get();
         Assertions.assertTrue(tagsTarget.isListShape());
     }
+
+    @Test
+    void testModelBuilderBuildsValidModelFromSyntheticSchemata() {
+        List<Schema> schemata = SyntheticSchemaGenerator.builder()
+                .fieldsets(20)
+                .fieldsPerSet(50)
+                .depth(3)
+                .allowedValues(5)
+                .enumRatio(0.5)
+                .arrayRatio(0.25)
+                .reusableFieldsets(4)
+                .reuseFanOut(3)
+                .build()
+                .generate();
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        schemata.forEach(builder::addSchema);
+
+        Assertions.assertFalse(builder.build().isBroken());
+    }
+
+    @Test
+    void testConcurrentlyAddedSchemataProduceIdenticalShapes() {
+        List<Schema> schemata = new ArrayList<>(Loader.loadSchemata());
+        schemata.addAll(SyntheticSchemaGenerator.builder()
+                .fieldsets(50)
+                .depth(2)
+                .allowedValues(3)
+                .enumRatio(0.5)
+                .arrayRatio(0.25)
+                .reusableFieldsets(5)
+                .reuseFanOut(4)
+                .build()
+                .generate());
+        SmithyModelBuilder sequential = new SmithyModelBuilder("example.test", "Record");
+        schemata.forEach(sequential::addSchema);
+        SmithyModelBuilder concurrent = new SmithyModelBuilder("example.test", "Record");
+        concurrent.addSchemata(schemata);
+
+        Assertions.assertEquals(new HashSet<>(sequential.buildShapes()), new HashSet<>(concurrent.buildShapes()));
+    }
+
+    @Test
+    void testReuseDirectivesAreAppliedInDependencyOrder() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        // `inner` is expected under a path that only exists once `middle` has been reused under `outer`
+        builder.addSchema(schema("inner", ReusabilityDeclaration.builder()
+                .topLevel(false)
+                .expected(Collections.singletonList("outer.middle"))
+                .build()));
+        builder.addSchema(schema("middle", ReusabilityDeclaration.builder()
+                .topLevel(false)
+                .expected(Collections.singletonList("outer"))
+                .build()));
+        builder.addSchema(schema("outer", null));
+        ShapeIndex index = builder.buildUnvalidated().getShapeIndex();
+
+        Shape middle = index.getShape(ShapeId.from("example.test#Middle")).get();
+        Assertions.assertTrue(middle.asStructureShape().flatMap(ss -> ss.getMember("inner")).isPresent());
+    }
+
+    @Test
+    void testCyclicReuseDirectivesAreRejected() {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchema(schema("first", ReusabilityDeclaration.builder()
+                .topLevel(true)
+                .expected(Collections.singletonList("outer.second"))
+                .build()));
+        builder.addSchema(schema("second", ReusabilityDeclaration.builder()
+                .topLevel(true)
+                .expected(Collections.singletonList("outer.first"))
+                .build()));
+        builder.addSchema(schema("outer", null));
+
+        Assertions.assertThrows(RuntimeException.class, builder::build);
+    }
+
+    @Test
+    void testFieldShapesCollidingWithIntermediatesAreRejected() {
+        FieldSchema status = field("response.status").build();
+        FieldSchema objectResponse = field("response").type(FieldSchema.Type.OBJECT).build();
+        FieldSchema enumResponse = field("response")
+                .allowedValues(Collections.singletonList(AllowedValue.builder()
+                        .name("ok")
+                        .description("A successful response.")
+                        .build()))
+                .build();
+
+        SmithyModelBuilder shared = new SmithyModelBuilder("example.test", "Record");
+        shared.addSchema(schema("http", null).toBuilder().fields(Arrays.asList(objectResponse, status)).build());
+        shared.buildShapes();
+
+        SmithyModelBuilder colliding = new SmithyModelBuilder("example.test", "Record");
+        Assertions.assertThrows(RuntimeException.class, () -> {
+            colliding.addSchema(schema("http", null).toBuilder().fields(Arrays.asList(enumResponse, status)).build());
+            colliding.buildShapes();
+        });
+    }
+
+    @Test
+    void testAddingSchemaYieldsOneMemberPerField() {
+        // How long adding a schema takes as its field count grows is measured by SmithyModelBuilderBenchmark
+        int fieldCount = 12_500;
+        Schema schema = SyntheticSchemaGenerator.builder()
+                .fieldsets(1)
+                .fieldsPerSet(fieldCount)
+                .pathBranching(fieldCount / 10)
+                .build()
+                .generate()
+                .get(0);
+
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchema(schema);
+        // Field members are only held by the structures they belong to, not listed as shapes in their own right
+        long fieldMembers = builder.buildShapes().stream()
+                .flatMap(shape -> shape.members().stream())
+                .filter(member -> member.getMemberName().startsWith("field"))
+                .count();
+
+        Assertions.assertEquals(fieldCount, fieldMembers);
+    }
+
+    private static FieldSchema.Builder field(String name) {
+        return FieldSchema.builder()
+                .name(name)
+                .type(FieldSchema.Type.KEYWORD)
+                .level(FieldSchema.Level.CORE)
+                .description("The " + name + " field.");
+    }
+
+    private static Schema schema(String name, ReusabilityDeclaration reusable) {
+        return Schema.builder()
+                .name(name)
+                .title(name)
+                .description("The " + name + " schema.")
+                .type(Schema.SchemaType.group)
+                .reusable(reusable)
+                .fields(Collections.singletonList(FieldSchema.builder()
+                        .name("id")
+                        .type(FieldSchema.Type.KEYWORD)
+                        .level(FieldSchema.Level.CORE)
+                        .description("An identifier.")
+                        .build()))
+                .build();
+    }
 }
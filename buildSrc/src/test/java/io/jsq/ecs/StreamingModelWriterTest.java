@@ -0,0 +1,33 @@
+package io.jsq.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.ModelSerializer;
+
+class StreamingModelWriterTest {
+    @Test
+    void testWritesWhatModelSerializerWould(@TempDir Path directory) throws IOException {
+        SmithyModelBuilder builder = new SmithyModelBuilder("example.test", "Record");
+        builder.addSchemata(Loader.loadSchemata());
+        Model model = builder.build().unwrap();
+
+        for (boolean pretty : new boolean[]{true, false}) {
+            Path file = directory.resolve(pretty + ".json");
+            int written = StreamingModelWriter.write(model, file, pretty);
+
+            assertEquals(ModelSerializer.builder().build().serialize(model),
+                    Node.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)));
+            assertEquals(model.getShapeIndex().shapes()
+                    .filter(shape -> !shape.isMemberShape() && !shape.getId().getNamespace().equals("smithy.api"))
+                    .count(), written);
+        }
+    }
+}